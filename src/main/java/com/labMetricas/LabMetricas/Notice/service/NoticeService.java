@@ -105,6 +105,25 @@ public class NoticeService {
         return savedNotice;
     }
 
+    // Una sola notificación (y un solo correo) que resume varias acciones sobre mantenimientos
+    @Transactional
+    public Notice createMaintenanceDigestNotice(User recipient, String title, String description) {
+        Notice notice = new Notice();
+        notice.setTitle(title);
+        notice.setDescription(description);
+        notice.setStatus(true);
+        notice.setCreatedBy(recipient);
+        notice.setCreatedAt(LocalDateTime.now());
+        notice.setUpdatedAt(LocalDateTime.now());
+        
+        Notice savedNotice = noticeRepository.save(notice);
+        
+        // Send email notification
+        sendNoticeEmail(savedNotice);
+        
+        return savedNotice;
+    }
+
     private void sendNoticeEmail(Notice notice) {
         try {
             // Send real email notification using ProductionEmailService
@@ -0,0 +1,135 @@
+package com.labMetricas.LabMetricas.auditLog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which controller calls are audited and how much of their input is kept.
+ *
+ * audit.capture.rules is a comma-separated list of "METHOD /pattern=rate" entries ("*" matches
+ * any method, patterns use the Spring MVC syntax); the first matching rule gives the share of
+ * calls recorded, 0 skips them and 1 records all. Calls no rule matches are always recorded,
+ * except GET and HEAD, which are recorded at audit.capture.read-sample-rate (0 by default).
+ *
+ * Details are the request body as JSON with password, token and secret fields removed, only for
+ * writes, and replaced by {"truncated":true} above audit.capture.max-details-length characters.
+ */
+@Component
+public class AuditCaptureRules {
+    private static final Logger logger = LoggerFactory.getLogger(AuditCaptureRules.class);
+
+    private static final String TRUNCATED = "{\"truncated\":true}";
+
+    private final List<Rule> rules;
+    private final double readSampleRate;
+    private final int maxDetailsLength;
+    private final ObjectMapper objectMapper;
+
+    public AuditCaptureRules(@Value("${audit.capture.rules:}") String rules,
+                             @Value("${audit.capture.read-sample-rate:0}") double readSampleRate,
+                             @Value("${audit.capture.max-details-length:2048}") int maxDetailsLength,
+                             ObjectMapper objectMapper) {
+        this.rules = parse(rules);
+        this.readSampleRate = readSampleRate;
+        this.maxDetailsLength = maxDetailsLength;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean shouldCapture(HttpServletRequest request) {
+        if (request == null) {
+            // Llamada fuera de una petición HTTP: siempre se audita
+            return true;
+        }
+        String method = request.getMethod();
+        PathContainer path = PathContainer.parsePath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        for (Rule rule : rules) {
+            if (rule.matches(method, path)) {
+                return sample(rule.rate);
+            }
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return sample(readSampleRate);
+        }
+        return true;
+    }
+
+    public String details(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.valueToTree(body);
+            removeSecrets(node);
+            String json = objectMapper.writeValueAsString(node);
+            return json.length() <= maxDetailsLength ? json : TRUNCATED;
+        } catch (Exception e) {
+            logger.debug("Could not serialize audit details for {}", body.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+
+    private static boolean sample(double rate) {
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static void removeSecrets(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<String> names = object.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next().toLowerCase(Locale.ROOT);
+                if (name.contains("password") || name.contains("token") || name.contains("secret")) {
+                    names.remove();
+                }
+            }
+        }
+        for (JsonNode child : node) {
+            removeSecrets(child);
+        }
+    }
+
+    private static List<Rule> parse(String spec) {
+        List<Rule> parsed = new ArrayList<>();
+        if (spec == null || spec.isBlank()) {
+            return parsed;
+        }
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int space = trimmed.indexOf(' ');
+            int equals = trimmed.lastIndexOf('=');
+            if (space < 0 || equals < space) {
+                throw new IllegalArgumentException("Invalid audit capture rule, expected 'METHOD /pattern=rate': " + trimmed);
+            }
+            parsed.add(new Rule(
+                trimmed.substring(0, space).toUpperCase(Locale.ROOT),
+                PathPatternParser.defaultInstance.parse(trimmed.substring(space + 1, equals).trim()),
+                Double.parseDouble(trimmed.substring(equals + 1).trim())
+            ));
+        }
+        return parsed;
+    }
+
+    private record Rule(String method, PathPattern pattern, double rate) {
+        boolean matches(String requestMethod, PathContainer path) {
+            return ("*".equals(method) || method.equals(requestMethod)) && pattern.matches(path);
+        }
+    }
+}
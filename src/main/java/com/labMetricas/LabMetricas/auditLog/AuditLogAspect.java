@@ -1,9 +1,12 @@
 package com.labMetricas.LabMetricas.auditLog;
 
-import com.labMetricas.LabMetricas.auditLog.model.AuditLog;
-import com.labMetricas.LabMetricas.auditLog.repository.AuditLogRepository;
+import com.labMetricas.LabMetricas.auditLog.model.AuditAction;
+import com.labMetricas.LabMetricas.auditLog.model.AuditEvent;
+import com.labMetricas.LabMetricas.auditLog.service.AuditLogWriter;
+import com.labMetricas.LabMetricas.document.model.Document;
+import com.labMetricas.LabMetricas.security.UserPrincipal;
 import com.labMetricas.LabMetricas.user.model.User;
-import com.labMetricas.LabMetricas.user.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
@@ -13,20 +16,38 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Audits controller calls as structured events: action type, entity type and id (first
+ * @PathVariable), and for writes a small JSON of the @RequestBody. AuditCaptureRules decides which
+ * calls are recorded (reads are sampled or skipped). Only values are captured here; AuditLogWriter
+ * resolves the user name and inserts in batches on its own thread, so the request does no
+ * database work for auditing.
+ */
 @Aspect
 @Component
 public class AuditLogAspect {
 
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditLogWriter auditLogWriter;
 
     @Autowired
-    private UserRepository userRepository;
+    private AuditCaptureRules captureRules;
+
+    // Posición de @PathVariable y @RequestBody por método, se calcula una sola vez
+    private final Map<Method, ArgumentLayout> layouts = new ConcurrentHashMap<>();
 
     // Intercepta todos los métodos de cualquier clase en el paquete controller
     @Pointcut("within(com.labMetricas.LabMetricas..controller..*)")
@@ -34,51 +55,68 @@ public class AuditLogAspect {
 
     @AfterReturning(pointcut = "controllerMethods()", returning = "result")
     public void logAfter(JoinPoint joinPoint, Object result) {
-        String username = getCurrentUsername();
-        String methodName = joinPoint.getSignature().getName();
-        String className = joinPoint.getTarget().getClass().getSimpleName();
+        if (!captureRules.shouldCapture(currentRequest())) {
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String methodName = signature.getName();
+        AuditAction actionType = AuditAction.fromMethodName(methodName);
         Object[] args = joinPoint.getArgs();
-
-        // Buscar el usuario por email (username)
-        Optional<User> userOpt = userRepository.findByEmail(username);
-        User user = userOpt.orElse(null);
+        ArgumentLayout layout = layouts.computeIfAbsent(signature.getMethod(), ArgumentLayout::of);
 
         // Buscar si algún parámetro es un Document
-        com.labMetricas.LabMetricas.document.model.Document document = null;
+        Long documentId = null;
         for (Object arg : args) {
-            if (arg instanceof com.labMetricas.LabMetricas.document.model.Document) {
-                document = (com.labMetricas.LabMetricas.document.model.Document) arg;
+            if (arg instanceof Document document) {
+                documentId = document.getId();
                 break;
             }
         }
 
-        // Mensaje personalizado
-        String message = buildCustomMessage(user != null ? user.getName() : username, methodName, className, args, result);
+        Object entityId = layout.pathVariable >= 0 ? args[layout.pathVariable] : null;
+        // El cuerpo se serializa aquí: después de la petición puede haber cambiado
+        String details = actionType != AuditAction.READ && layout.requestBody >= 0
+            ? captureRules.details(args[layout.requestBody])
+            : null;
 
-        AuditLog log = new AuditLog();
-        log.setUser(user);
-        log.setAction(message);
-        log.setCreatedAt(java.time.LocalDateTime.now());
-        if (document != null) {
-            log.setDocument(document);
-        }
-        auditLogRepository.save(log);
+        auditLogWriter.enqueue(new AuditEvent(
+            getCurrentUserId(authentication),
+            getCurrentUsername(authentication),
+            actionType,
+            methodName,
+            extractEntityName(joinPoint.getTarget().getClass().getSimpleName()),
+            entityId != null ? entityId.toString() : null,
+            details,
+            documentId,
+            LocalDateTime.now()
+        ));
     }
 
-    private String getCurrentUsername() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+
+    private String getCurrentUsername(Authentication authentication) {
         if (authentication != null && authentication.isAuthenticated()) {
             return authentication.getName();
         }
         return "ANONYMOUS";
     }
 
-    private String buildCustomMessage(String username, String methodName, String className, Object[] args, Object result) {
-        // Ejemplo: "Manuel agregó un equipo: EquipoDto{nombre='Microscopio'}"
-        String entity = extractEntityName(className);
-        String action = mapMethodToAction(methodName);
-        String params = Arrays.toString(args);
-        return String.format("%s %s en %s con parámetros %s", username, action, entity, params);
+    private UUID getCurrentUserId(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getId();
+        }
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        return null;
     }
 
     private String extractEntityName(String className) {
@@ -89,17 +127,21 @@ public class AuditLogAspect {
         return className;
     }
 
-    private String mapMethodToAction(String methodName) {
-        // Puedes personalizar más acciones aquí
-        if (methodName.startsWith("create") || methodName.startsWith("add")) {
-            return "agregó";
-        } else if (methodName.startsWith("update") || methodName.startsWith("edit")) {
-            return "actualizó";
-        } else if (methodName.startsWith("delete") || methodName.startsWith("remove")) {
-            return "eliminó";
-        } else if (methodName.startsWith("get") || methodName.startsWith("find")) {
-            return "consultó";
+    private record ArgumentLayout(int pathVariable, int requestBody) {
+        static ArgumentLayout of(Method method) {
+            int pathVariable = -1;
+            int requestBody = -1;
+            Annotation[][] annotations = method.getParameterAnnotations();
+            for (int i = 0; i < annotations.length; i++) {
+                for (Annotation annotation : annotations[i]) {
+                    if (annotation instanceof PathVariable && pathVariable < 0) {
+                        pathVariable = i;
+                    } else if (annotation instanceof RequestBody && requestBody < 0) {
+                        requestBody = i;
+                    }
+                }
+            }
+            return new ArgumentLayout(pathVariable, requestBody);
         }
-        return "ejecutó la acción '" + methodName + "'";
     }
-} 
\ No newline at end of file
+}
@@ -1,11 +1,18 @@
 package com.labMetricas.LabMetricas.auditLog.controller;
 
-import com.labMetricas.LabMetricas.auditLog.model.AuditLog;
 import com.labMetricas.LabMetricas.auditLog.model.dto.AuditLogDto;
 import com.labMetricas.LabMetricas.auditLog.service.AuditLogService;
+import com.labMetricas.LabMetricas.enums.TypeResponse;
+import com.labMetricas.LabMetricas.util.CursorPageResponse;
+import com.labMetricas.LabMetricas.util.ResponseObject;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,4 +32,29 @@ public class AuditLogController {
     public List<AuditLogDto> getLogsByUserEmail(@PathVariable("email") String email) {
         return auditLogService.getLogsByUserEmail(email);
     }
-} 
\ No newline at end of file
+
+    // Keyset-paginated search; from/to in ISO format (2025-01-31T00:00:00), to is exclusive
+    @GetMapping("/search")
+    public ResponseEntity<ResponseObject> searchLogs(
+        @RequestParam(required = false) UUID userId,
+        @RequestParam(required = false) String email,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(required = false) String entity,
+        @RequestParam(required = false) String action,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        try {
+            CursorPageResponse<AuditLogDto> page = auditLogService.getLogPage(
+                userId, email, from, to, entity, action, cursor, size);
+            return ResponseEntity.ok(new ResponseObject("Audit logs retrieved successfully", page, TypeResponse.SUCCESS));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ResponseObject(e.getMessage(), null, TypeResponse.ERROR));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ResponseObject("Invalid filter or cursor: " + e.getMessage(), null, TypeResponse.ERROR));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.labMetricas.LabMetricas.auditLog.model;
+
+/**
+ * Kind of operation recorded in audit_logs.action_type, derived from the controller method name.
+ */
+public enum AuditAction {
+    CREATE("agregó"),
+    UPDATE("actualizó"),
+    DELETE("eliminó"),
+    READ("consultó"),
+    OTHER("ejecutó");
+
+    private final String verb;
+
+    AuditAction(String verb) {
+        this.verb = verb;
+    }
+
+    public String getVerb() {
+        return verb;
+    }
+
+    public static AuditAction fromMethodName(String methodName) {
+        if (methodName.startsWith("create") || methodName.startsWith("add")) {
+            return CREATE;
+        } else if (methodName.startsWith("update") || methodName.startsWith("edit")) {
+            return UPDATE;
+        } else if (methodName.startsWith("delete") || methodName.startsWith("remove")) {
+            return DELETE;
+        } else if (methodName.startsWith("get") || methodName.startsWith("find")) {
+            return READ;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,74 @@
+package com.labMetricas.LabMetricas.auditLog.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Audit entry captured on the request thread and written later by AuditLogWriter. Holds only
+ * values (ids and strings), never entities, so it can be read from another thread after the
+ * request and its persistence context are gone.
+ */
+public final class AuditEvent {
+    private final UUID userId;
+    private final String username;
+    private final AuditAction actionType;
+    private final String operation;
+    private final String entityType;
+    private final String entityId;
+    private final String details;
+    private final Long documentId;
+    private final LocalDateTime createdAt;
+
+    /**
+     * @param operation controller method name, only shown in the message for OTHER actions
+     * @param details   small JSON object for the details column, or null
+     */
+    public AuditEvent(UUID userId, String username, AuditAction actionType, String operation, String entityType,
+                      String entityId, String details, Long documentId, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.username = username;
+        this.actionType = actionType;
+        this.operation = operation;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.details = details;
+        this.documentId = documentId;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public AuditAction getActionType() {
+        return actionType;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -8,12 +8,16 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
+// Indexes, foreign keys and monthly partitions are managed by AuditLogPartitionService: Hibernate
+// does not see them on a partitioned table and would try to create them again on every startup
 @Table(name = "audit_logs")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class AuditLog {
@@ -21,15 +25,31 @@ public class AuditLog {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    // Mensaje legible, p. ej. "Manuel agregó en Equipment 3f2a..."
     @Column(columnDefinition = "TEXT", nullable = false)
     private String action;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", length = 16)
+    private AuditAction actionType;
+
+    @Column(name = "entity_type", length = 64)
+    private String entityType;
+
+    @Column(name = "entity_id", length = 64)
+    private String entityId;
+
+    // Small JSON object (request body with secrets removed), only for writes
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "details", columnDefinition = "jsonb")
+    private String details;
+
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "document_id")
+    @JoinColumn(name = "document_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Document document;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private User user;
 
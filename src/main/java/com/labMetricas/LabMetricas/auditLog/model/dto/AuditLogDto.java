@@ -1,10 +1,20 @@
 package com.labMetricas.LabMetricas.auditLog.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.labMetricas.LabMetricas.auditLog.model.AuditAction;
+
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class AuditLogDto {
+    private Integer id;
     private String action;
+    private AuditAction actionType;
+    private String entityType;
+    private String entityId;
+    private String details;
     private LocalDateTime createdAt;
+    private UUID userId;
     private String userEmail;
     private String userName;
 
@@ -15,8 +25,27 @@ public class AuditLogDto {
         this.userName = userName;
     }
 
+    // JPQL projection: one row per log, user columns from a LEFT JOIN
+    public AuditLogDto(Integer id, String action, AuditAction actionType, String entityType, String entityId,
+                       String details, LocalDateTime createdAt, UUID userId, String userEmail, String userName) {
+        this(action, createdAt, userEmail, userName);
+        this.id = id;
+        this.actionType = actionType;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.details = details;
+        this.userId = userId;
+    }
+
+    public Integer getId() { return id; }
     public String getAction() { return action; }
+    public AuditAction getActionType() { return actionType; }
+    public String getEntityType() { return entityType; }
+    public String getEntityId() { return entityId; }
+    @JsonRawValue
+    public String getDetails() { return details; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public UUID getUserId() { return userId; }
     public String getUserEmail() { return userEmail; }
     public String getUserName() { return userName; }
-} 
\ No newline at end of file
+}
@@ -1,9 +1,52 @@
 package com.labMetricas.LabMetricas.auditLog.repository;
 
+import com.labMetricas.LabMetricas.auditLog.model.AuditAction;
 import com.labMetricas.LabMetricas.auditLog.model.AuditLog;
+import com.labMetricas.LabMetricas.auditLog.model.dto.AuditLogDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
- 
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Integer> {
-} 
\ No newline at end of file
+
+    String DTO_PROJECTION =
+        "SELECT new com.labMetricas.LabMetricas.auditLog.model.dto.AuditLogDto(" +
+        "a.id, a.action, a.actionType, a.entityType, a.entityId, a.details, a.createdAt, u.id, u.email, u.name) " +
+        "FROM AuditLog a LEFT JOIN a.user u ";
+
+    @Query(DTO_PROJECTION + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLogDto> findAllDtos();
+
+    @Query(DTO_PROJECTION + "WHERE LOWER(u.email) = LOWER(:email) ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLogDto> findDtosByUserEmail(@Param("email") String email);
+
+    // Keyset page ordered by (createdAt, id) desc. The user, entity and date filters are served by
+    // the (user_id, created_at, id), (entity_type, created_at, id) and (created_at, id) indexes;
+    // action type only filters the rows that range yields. Null filters and a null cursor are ignored
+    @Query(DTO_PROJECTION +
+           "WHERE (:userId IS NULL OR a.user.id = :userId) " +
+           "AND (CAST(:from AS LocalDateTime) IS NULL OR a.createdAt >= :from) " +
+           "AND (CAST(:to AS LocalDateTime) IS NULL OR a.createdAt < :to) " +
+           "AND (CAST(:entityType AS String) IS NULL OR a.entityType = :entityType) " +
+           "AND (:actionType IS NULL OR a.actionType = :actionType) " +
+           "AND (CAST(:cursorCreatedAt AS LocalDateTime) IS NULL OR a.createdAt < :cursorCreatedAt " +
+           "     OR (a.createdAt = :cursorCreatedAt AND a.id < :cursorId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLogDto> findPage(
+        @Param("userId") UUID userId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("entityType") String entityType,
+        @Param("actionType") AuditAction actionType,
+        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+        @Param("cursorId") Integer cursorId,
+        Pageable pageable
+    );
+}
@@ -1,41 +1,111 @@
 package com.labMetricas.LabMetricas.auditLog.service;
 
-import com.labMetricas.LabMetricas.auditLog.model.AuditLog;
+import com.labMetricas.LabMetricas.auditLog.model.AuditAction;
 import com.labMetricas.LabMetricas.auditLog.model.dto.AuditLogDto;
 import com.labMetricas.LabMetricas.auditLog.repository.AuditLogRepository;
+import com.labMetricas.LabMetricas.user.repository.UserRepository;
+import com.labMetricas.LabMetricas.util.CursorPageResponse;
+import com.labMetricas.LabMetricas.util.KeysetCursor;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class AuditLogService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
 
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Transactional(readOnly = true)
     public List<AuditLogDto> getAllLogs() {
-        return auditLogRepository.findAll().stream()
-            .map(log -> new AuditLogDto(
-                log.getAction(),
-                log.getCreatedAt(),
-                log.getUser() != null ? log.getUser().getEmail() : null,
-                log.getUser() != null ? log.getUser().getName() : null
-            ))
-            .collect(Collectors.toList());
+        return auditLogRepository.findAllDtos();
     }
 
+    @Transactional(readOnly = true)
     public List<AuditLogDto> getLogsByUserEmail(String email) {
-        return auditLogRepository.findAll().stream()
-            .filter(log -> log.getUser() != null && email.equalsIgnoreCase(log.getUser().getEmail()))
-            .map(log -> new AuditLogDto(
-                log.getAction(),
-                log.getCreatedAt(),
-                log.getUser().getEmail(),
-                log.getUser().getName()
-            ))
-            .collect(Collectors.toList());
+        return auditLogRepository.findDtosByUserEmail(email);
+    }
+
+    /**
+     * One keyset page of the audit log, newest first. All filters are optional; email is
+     * resolved to the user id first so the query runs on the (user_id, created_at) index.
+     * entity is the entity type (the controller name, e.g. "Equipment"), action an AuditAction
+     * name (e.g. "DELETE", case-insensitive).
+     *
+     * @throws IllegalArgumentException if the cursor or action is malformed or from is not before to
+     * @throws EntityNotFoundException  if email does not belong to any user
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditLogDto> getLogPage(
+        UUID userId,
+        String email,
+        LocalDateTime from,
+        LocalDateTime to,
+        String entity,
+        String action,
+        String cursor,
+        Integer size
+    ) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        int pageSize = normalizePageSize(size);
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+
+        if (userId == null && email != null && !email.isBlank()) {
+            userId = userRepository.findByEmail(email)
+                .orElseThrow(() -> new EntityNotFoundException("User not found: " + email))
+                .getId();
+        }
+
+        // Fetch one extra row to know whether there is a next page without counting
+        List<AuditLogDto> rows = auditLogRepository.findPage(
+            userId,
+            from,
+            to,
+            isBlank(entity) ? null : entity.trim(),
+            parseAction(action),
+            keysetCursor != null ? keysetCursor.getCreatedAt() : null,
+            keysetCursor != null ? Integer.valueOf(keysetCursor.getId()) : null,
+            PageRequest.of(0, pageSize + 1)
+        );
+
+        return CursorPageResponse.fromRows(rows, pageSize,
+            dto -> new KeysetCursor(dto.getCreatedAt(), dto.getId().toString()));
+    }
+
+    private int normalizePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static AuditAction parseAction(String action) {
+        if (isBlank(action)) {
+            return null;
+        }
+        try {
+            return AuditAction.valueOf(action.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("action must be one of " + Arrays.toString(AuditAction.values()));
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,282 @@
+package com.labMetricas.LabMetricas.auditLog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.labMetricas.LabMetricas.auditLog.model.AuditAction;
+import com.labMetricas.LabMetricas.auditLog.model.AuditEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit events off the request thread. Requests enqueue on a bounded lock-free queue
+ * (ConcurrentLinkedQueue plus a CAS-reserved size) and return; one writer thread drains it and
+ * inserts each batch with a single JDBC batch statement. Ids come from the audit_logs id
+ * sequence, so nothing goes through Hibernate's per-row IDENTITY insert. Each row carries the
+ * structured columns (action_type, entity_type, entity_id, details) and a short readable message.
+ *
+ * When the queue is full, audit.queue.overflow-policy decides: CALLER_RUNS (default) writes the
+ * event on the request thread, which slows producers down and loses nothing; DROP discards it
+ * and counts it in audit.events.dropped.
+ *
+ * Meters: audit.queue.depth, audit.flush.duration, audit.flush.batch.size, audit.events.written,
+ * audit.events.dropped, audit.events.caller.runs.
+ */
+@Service
+public class AuditLogWriter implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_logs (action, action_type, entity_type, entity_id, details, user_id, document_id, created_at) " +
+        "VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?)";
+
+    public enum OverflowPolicy { CALLER_RUNS, DROP }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Nombre del usuario para el mensaje, resuelto por lote en vez de una consulta por petición
+    private final Cache<UUID, String> userNames = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterWrite(Duration.ofMinutes(10))
+        .build();
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter callerRuns;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.queue.capacity:10000}") int capacity,
+                          @Value("${audit.batch-size:200}") int batchSize,
+                          @Value("${audit.flush-interval-ms:500}") long flushIntervalMs,
+                          @Value("${audit.queue.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+
+        Gauge.builder("audit.queue.depth", size, AtomicInteger::get)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush.duration")
+            .description("Time to write one batch of audit events")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.flush.batch.size")
+            .description("Audit events per batch insert")
+            .register(meterRegistry);
+        this.written = Counter.builder("audit.events.written").register(meterRegistry);
+        this.dropped = Counter.builder("audit.events.dropped")
+            .description("Audit events discarded because the queue was full or the insert failed")
+            .register(meterRegistry);
+        this.callerRuns = Counter.builder("audit.events.caller.runs")
+            .description("Audit events written on the request thread because the queue was full")
+            .register(meterRegistry);
+    }
+
+    public void enqueue(AuditEvent event) {
+        if (!running) {
+            // Antes de arrancar o durante el apagado no hay hilo escritor
+            flush(List.of(event));
+            return;
+        }
+        int depth = size.incrementAndGet();
+        if (depth > capacity) {
+            size.decrementAndGet();
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.increment();
+            } else {
+                callerRuns.increment();
+                flush(List.of(event));
+            }
+            return;
+        }
+        queue.offer(event);
+        if (!running) {
+            // stop() empezó entre la comprobación y el offer: el hilo escritor puede haber
+            // terminado ya, así que quien encola escribe lo que quede
+            drainRemaining();
+            return;
+        }
+        if (depth == batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    // Stops after the web server (lower phase), then writes whatever is still queued. Events
+    // enqueued from here on are written on the caller's thread (see enqueue)
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Lo que se encoló mientras el hilo terminaba
+        drainRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void drainLoop() {
+        while (running || size.get() > 0) {
+            List<AuditEvent> batch = drain();
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            } else {
+                flush(batch);
+            }
+        }
+    }
+
+    private void drainRemaining() {
+        List<AuditEvent> batch;
+        while (!(batch = drain()).isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private List<AuditEvent> drain() {
+        List<AuditEvent> batch = new ArrayList<>(Math.min(batchSize, Math.max(1, size.get())));
+        AuditEvent event;
+        while (batch.size() < batchSize && (event = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            Map<UUID, String> names = resolveUserNames(batch);
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (AuditEvent event : batch) {
+                String displayName = event.getUserId() != null
+                    ? names.getOrDefault(event.getUserId(), event.getUsername())
+                    : event.getUsername();
+                rows.add(new Object[]{
+                    buildMessage(displayName, event),
+                    event.getActionType().name(),
+                    event.getEntityType(),
+                    event.getEntityId(),
+                    event.getDetails(),
+                    event.getUserId(),
+                    event.getDocumentId(),
+                    Timestamp.valueOf(event.getCreatedAt())
+                });
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            written.increment(batch.size());
+            batchSizes.record(batch.size());
+        } catch (Exception e) {
+            // Sin reintentos: un fallo de la base no debe acumular eventos sin límite
+            dropped.increment(batch.size());
+            logger.error("Failed to write {} audit events", batch.size(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Map<UUID, String> resolveUserNames(List<AuditEvent> batch) {
+        Map<UUID, String> names = new HashMap<>();
+        Set<UUID> missing = new HashSet<>();
+        for (AuditEvent event : batch) {
+            UUID userId = event.getUserId();
+            if (userId == null || names.containsKey(userId)) {
+                continue;
+            }
+            String name = userNames.getIfPresent(userId);
+            if (name != null) {
+                names.put(userId, name);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            namedParameterJdbcTemplate.query("SELECT id, name FROM users WHERE id IN (:ids)",
+                Map.of("ids", missing),
+                rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    String name = rs.getString("name");
+                    userNames.put(id, name);
+                    names.put(id, name);
+                });
+        }
+        return names;
+    }
+
+    // Ejemplos: "Manuel agregó en Equipment", "Manuel eliminó en Equipment 3f2a9c1e-..."
+    private static String buildMessage(String displayName, AuditEvent event) {
+        StringBuilder message = new StringBuilder(64)
+            .append(displayName).append(' ').append(event.getActionType().getVerb());
+        if (event.getActionType() == AuditAction.OTHER) {
+            message.append(" la acción '").append(event.getOperation()).append('\'');
+        }
+        message.append(" en ").append(event.getEntityType());
+        if (event.getEntityId() != null) {
+            message.append(' ').append(event.getEntityId());
+        }
+        return message.toString();
+    }
+}
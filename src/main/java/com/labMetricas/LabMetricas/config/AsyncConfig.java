@@ -0,0 +1,119 @@
+package com.labMetricas.LabMetricas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${async.events.core-size:2}")
+    private int eventCoreSize;
+
+    @Value("${async.events.max-size:4}")
+    private int eventMaxSize;
+
+    @Value("${async.events.queue-capacity:1000}")
+    private int eventQueueCapacity;
+
+    // Con hilos virtuales: tareas de eventos simultáneas; 0 = tamaño del pool de Hikari
+    @Value("${async.events.virtual-concurrency-limit:0}")
+    private int eventVirtualConcurrencyLimit;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    // 0 = one thread per CPU; BCrypt is CPU bound, more threads only add contention
+    @Value("${security.login.pool-size:0}")
+    private int loginPoolSize;
+
+    @Value("${security.login.queue-capacity:100}")
+    private int loginQueueCapacity;
+
+    @Value("${email.outbox.workers:4}")
+    private int emailOutboxWorkers;
+
+    /**
+     * Runs post-commit side effects (emails, notices). Bounded queue; when it is full the
+     * publishing thread runs the task itself, which slows producers down instead of dropping mail.
+     *
+     * With spring.threads.virtual.enabled (Java 21+) each task gets a virtual thread instead,
+     * so a slow Resend call costs no platform thread. The tasks also use the database, so their
+     * concurrency is capped at the connection pool size; publishers block once the cap is hit.
+     */
+    @Bean(name = "maintenanceEventExecutor")
+    public AsyncTaskExecutor maintenanceEventExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            int limit = eventVirtualConcurrencyLimit > 0 ? eventVirtualConcurrencyLimit : connectionPoolSize;
+            if (limit > connectionPoolSize) {
+                logger.warn("async.events.virtual-concurrency-limit {} exceeds the connection pool size {}; event tasks may wait for connections",
+                    limit, connectionPoolSize);
+            }
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("maintenance-event-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(limit);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(eventCoreSize);
+        executor.setMaxPoolSize(eventMaxSize);
+        executor.setQueueCapacity(eventQueueCapacity);
+        executor.setThreadNamePrefix("maintenance-event-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Password verification for /api/auth/login. Keeps BCrypt off the Tomcat request threads so
+     * a login storm cannot starve API traffic. When the queue is full the task is rejected and
+     * the login answers 503 instead of queueing without bound. Stays on platform threads even
+     * in virtual-thread mode: BCrypt is CPU bound and gains nothing from them.
+     */
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor() {
+        int poolSize = loginPoolSize > 0 ? loginPoolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(loginQueueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Email outbox sends plus its poller. EmailOutboxWorker never has more than
+     * email.outbox.workers sends in flight, so the queue stays short; on shutdown the sends in
+     * progress finish and whatever was not sent stays in sent_emails for the next start.
+     */
+    @Bean(name = "emailOutboxExecutor")
+    public ThreadPoolTaskExecutor emailOutboxExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(emailOutboxWorkers + 1);
+        executor.setMaxPoolSize(emailOutboxWorkers + 1);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
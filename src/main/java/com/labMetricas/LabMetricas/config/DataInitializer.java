@@ -11,6 +11,7 @@ import com.labMetricas.LabMetricas.maintenance.model.ScheduledMaintenance;
 import com.labMetricas.LabMetricas.maintenance.model.FrequencyType;
 import com.labMetricas.LabMetricas.maintenance.repository.MaintenanceRepository;
 import com.labMetricas.LabMetricas.maintenance.repository.ScheduledMaintenanceRepository;
+import com.labMetricas.LabMetricas.maintenance.service.MaintenanceCodeGenerator;
 import com.labMetricas.LabMetricas.role.model.Role;
 import com.labMetricas.LabMetricas.role.repository.RoleRepository;
 import com.labMetricas.LabMetricas.user.model.User;
@@ -60,6 +61,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private ScheduledMaintenanceRepository scheduledMaintenanceRepository;
 
+    @Autowired
+    private MaintenanceCodeGenerator maintenanceCodeGenerator;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -449,41 +453,7 @@ public class DataInitializer implements CommandLineRunner {
     }
     
     private String generateMaintenanceCode(MaintenanceType maintenanceType, boolean isProgrammed) {
-        // Generate a unique maintenance code with the format: YYYY-MM-DD-TYPE-P/NP-COUNTER
-        LocalDateTime now = LocalDateTime.now();
-        String date = now.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        
-        // Get maintenance type initials (first 3 characters)
-        String typeInitials = getMaintenanceTypeInitials(maintenanceType);
-        
-        // Determine if it's programmed (P) or non-programmed (NP)
-        String programType = isProgrammed ? "P" : "NP";
-        
-        // Get counter for the specific type
-        String counter = getNextCounter(isProgrammed);
-        
-        return date + "-" + typeInitials + "-" + programType + "-" + counter;
-    }
-    
-    private String getMaintenanceTypeInitials(MaintenanceType maintenanceType) {
-        // Get the first 3 characters of the maintenance type name
-        String name = maintenanceType.getName();
-        if (name.length() >= 3) {
-            return name.substring(0, 3).toUpperCase();
-        } else {
-            return name.toUpperCase();
-        }
-    }
-    
-    private String getNextCounter(boolean isProgrammed) {
-        // Get the next counter for the specific program type
-        long count;
-        if (isProgrammed) {
-            count = maintenanceRepository.countByScheduledMaintenanceIsNotNull();
-        } else {
-            count = maintenanceRepository.countByScheduledMaintenanceIsNull();
-        }
-        return String.format("%04d", count + 1);
+        return maintenanceCodeGenerator.generateMaintenanceCode(maintenanceType, isProgrammed);
     }
 
     private FrequencyType convertFrequencyType(String frequencyType) {
@@ -0,0 +1,198 @@
+package com.labMetricas.LabMetricas.config;
+
+import com.labMetricas.LabMetricas.maintenance.model.Maintenance;
+import com.labMetricas.LabMetricas.maintenance.repository.MaintenanceRepository;
+import com.labMetricas.LabMetricas.user.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Startup guard against index regressions on the maintenance table (PostgreSQL only).
+ *
+ * Each probe calls a MaintenanceRepository finder and captures the statement Hibernate actually
+ * sends, with its bound values inlined by the PostgreSQL driver, so predicates such as
+ * "(? is null or ...)" are checked as they run. The captured SQL is explained with
+ * enable_seqscan off, so the planner picks an index whenever a usable one exists. A remaining
+ * "Seq Scan on maintenance" means the finder has no index and startup fails.
+ * Enable with maintenance.query-plan-check.enabled=true (CI or staging).
+ */
+@Component
+@ConditionalOnProperty(name = "maintenance.query-plan-check.enabled", havingValue = "true")
+public class MaintenanceQueryPlanCheck implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceQueryPlanCheck.class);
+    private static final UUID SAMPLE_ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+    private static final PageRequest PAGE = PageRequest.of(0, 21);
+
+    // Sentencias preparadas por el hilo actual mientras se capturan
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MaintenanceRepository maintenanceRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!isPostgres()) {
+            logger.info("Skipping maintenance query plan check: database is not PostgreSQL");
+            return;
+        }
+
+        Map<String, Consumer<MaintenanceRepository>> probes = probes();
+        List<String> failures = new ArrayList<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            // SET LOCAL only lasts for this transaction
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            for (Map.Entry<String, Consumer<MaintenanceRepository>> probe : probes.entrySet()) {
+                List<String> statements = capture(probe.getValue());
+                if (statements.isEmpty()) {
+                    failures.add(probe.getKey() + ": no SQL captured");
+                }
+                for (String sql : statements) {
+                    String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+                    if (plan.contains("Seq Scan on maintenance ")) {
+                        failures.add(probe.getKey() + ":\n" + sql + "\n" + plan);
+                    }
+                }
+            }
+            status.setRollbackOnly();
+        });
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Maintenance finders without a usable index:\n" + String.join("\n\n", failures));
+        }
+        logger.info("Maintenance query plan check passed ({} finders)", probes.size());
+    }
+
+    private List<String> capture(Consumer<MaintenanceRepository> finder) {
+        List<String> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            finder.accept(maintenanceRepository);
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements;
+    }
+
+    private Map<String, Consumer<MaintenanceRepository>> probes() {
+        User user = new User();
+        user.setId(SAMPLE_ID);
+        LocalDateTime cursor = LocalDateTime.now();
+        Maintenance.ReviewStatus pending = Maintenance.ReviewStatus.PENDING;
+
+        Map<String, Consumer<MaintenanceRepository>> probes = new LinkedHashMap<>();
+        probes.put("findDetailPage", r -> r.findDetailPage(null, null, null, null, null, null, PAGE));
+        probes.put("findDetailPage(cursor)", r -> r.findDetailPage(null, null, null, null, cursor, SAMPLE_ID, PAGE));
+        probes.put("findDetailPage(reviewStatus)", r -> r.findDetailPage(pending, null, null, null, null, null, PAGE));
+        probes.put("findDetailPage(equipment)", r -> r.findDetailPage(null, null, SAMPLE_ID, null, null, null, PAGE));
+        probes.put("findDetailPage(responsible)", r -> r.findDetailPage(null, null, null, SAMPLE_ID, null, null, PAGE));
+        probes.put("findMyDetailPage", r -> r.findMyDetailPage(SAMPLE_ID, null, null, PAGE));
+        probes.put("findMyDetailPage(cursor)", r -> r.findMyDetailPage(SAMPLE_ID, cursor, SAMPLE_ID, PAGE));
+        probes.put("findDetailsByReviewStatus", r -> r.findDetailsByReviewStatus(pending));
+        probes.put("findDetailsByResponsibleId", r -> r.findDetailsByResponsibleId(SAMPLE_ID));
+        probes.put("findDetailsByRequestedById", r -> r.findDetailsByRequestedById(SAMPLE_ID));
+        probes.put("findDetailsByRequestedByAndNotProgrammed", r -> r.findDetailsByRequestedByAndNotProgrammed(user));
+        probes.put("findDetailsByResponsibleAndNotProgrammed", r -> r.findDetailsByResponsibleAndNotProgrammed(user));
+        probes.put("findByReviewedById", r -> r.findByReviewedById(SAMPLE_ID));
+        probes.put("findByReviewStatusAndReviewedById", r -> r.findByReviewStatusAndReviewedById(pending, SAMPLE_ID));
+        probes.put("findScheduledDetailById", r -> r.findScheduledDetailById(SAMPLE_ID));
+        return probes;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("postgres");
+    }
+
+    /**
+     * Wraps the DataSource, only while the check is enabled, so statements executed during a
+     * capture are recorded. PgPreparedStatement.toString() renders the SQL with its parameters.
+     */
+    @Component
+    @ConditionalOnProperty(name = "maintenance.query-plan-check.enabled", havingValue = "true")
+    static class StatementCapturePostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return capturing(super.getConnection());
+                    }
+
+                    @Override
+                    public Connection getConnection(String username, String password) throws SQLException {
+                        return capturing(super.getConnection(username, password));
+                    }
+                };
+            }
+            return bean;
+        }
+
+        private static Connection capturing(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                        return capturing(statement);
+                    }
+                    return result;
+                });
+        }
+
+        private static PreparedStatement capturing(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                (proxy, method, args) -> {
+                    List<String> captured = CAPTURED.get();
+                    if (captured != null && method.getName().startsWith("execute") && (args == null || args.length == 0)) {
+                        captured.add(statement.unwrap(PreparedStatement.class).toString());
+                    }
+                    return invoke(statement, method, args);
+                });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,26 +1,22 @@
 package com.labMetricas.LabMetricas.config;
 
-import com.resend.Resend;
-import com.resend.services.emails.model.SendEmailRequest;
-import com.resend.services.emails.model.SendEmailResponse;
+import com.labMetricas.LabMetricas.sentEmail.service.EmailOutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Builds the application emails and queues them in the sent_emails outbox (EmailOutboxService);
+ * EmailOutboxWorker sends them through Resend with retries. The send* methods return true once
+ * the email is queued and never wait for the provider.
+ */
 @Service
 public class ProductionEmailService {
     private static final Logger logger = LoggerFactory.getLogger(ProductionEmailService.class);
 
     @Autowired
-    private Resend resend;
-
-    @Value("${resend.default.sender}")
-    private String defaultSender;
-
-    @Value("${resend.api.key}")
-    private String apiKey;
+    private EmailOutboxService emailOutboxService;
 
     /**
      * Enviar email de bienvenida a un nuevo usuario
@@ -66,24 +62,8 @@ public class ProductionEmailService {
     }
 
     private boolean sendEmail(String to, String subject, String htmlContent) {
-        try {
-            logger.info("Sending production email to: {}", to);
-            
-            SendEmailRequest sendEmailRequest = SendEmailRequest.builder()
-                .from(defaultSender)
-                .to(to)
-                .subject(subject)
-                .html(htmlContent)
-                .build();
-
-            SendEmailResponse response = resend.emails().send(sendEmailRequest);
-            
-            logger.info("Production email sent successfully to: {} with ID: {}", to, response.getId());
-            return true;
-        } catch (Exception e) {
-            logger.error("Failed to send production email to: {}", to, e);
-            return false;
-        }
+        logger.info("Queueing production email to: {}", to);
+        return emailOutboxService.enqueue(to, subject, htmlContent, null);
     }
 
     private String buildWelcomeEmailBody(String userName) {
@@ -0,0 +1,168 @@
+package com.labMetricas.LabMetricas.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Guard for virtual-thread mode (spring.threads.virtual.enabled on Java 21+).
+ *
+ * Tomcat then starts a virtual thread per request with no worker cap, while most requests hold
+ * a pooled JDBC connection until they finish (open-in-view). Without a cap, a burst turns into
+ * thousands of threads queued inside Hikari until its connection timeout. This filter admits
+ * at most server.virtual-threads.max-concurrent-requests requests (default twice the pool
+ * size), lets the rest wait briefly, and answers 503 with Retry-After after that. An async
+ * request (e.g. /api/auth/login) keeps its permit until the async work completes, fails or
+ * times out, not just until its first dispatch returns.
+ *
+ * Experimental: the limits are derived from the pool size, not from a load test on Java 21.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    // 0 = dos peticiones por conexión del pool
+    @Value("${server.virtual-threads.max-concurrent-requests:0}")
+    private int maxConcurrentRequests;
+
+    @Value("${server.virtual-threads.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> virtualThreadConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                                                                               ObjectMapper objectMapper) {
+        int limit = maxConcurrentRequests > 0 ? maxConcurrentRequests : connectionPoolSize * 2;
+        logger.info("Virtual-thread request mode: at most {} concurrent requests for {} pooled connections",
+            limit, connectionPoolSize);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+            new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limit, acquireTimeoutMs, meterRegistry, objectMapper));
+        // Antes de Spring Security: una petición rechazada no verifica el JWT
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    static class ConcurrencyLimitFilter extends OncePerRequestFilter {
+        private final Semaphore permits;
+        private final long acquireTimeoutMs;
+        private final Counter rejected;
+        private final ObjectMapper objectMapper;
+
+        ConcurrencyLimitFilter(int limit, long acquireTimeoutMs, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+            this.permits = new Semaphore(limit);
+            this.acquireTimeoutMs = acquireTimeoutMs;
+            this.objectMapper = objectMapper;
+            this.rejected = Counter.builder("server.virtual.requests.rejected")
+                .description("Requests answered 503 because the concurrency limit stayed full")
+                .register(meterRegistry);
+            Gauge.builder("server.virtual.requests.active", permits, p -> limit - p.availablePermits())
+                .description("Requests currently admitted by the virtual-thread concurrency limit")
+                .register(meterRegistry);
+        }
+
+        // Health checks must keep answering while the app is saturated
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            return path.equals("/api/health") || path.startsWith("/actuator/health");
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                rejected.increment();
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), Map.of(
+                    "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "error", "Service Unavailable",
+                    "message", "El servidor está ocupado. Por favor, intenta de nuevo en unos segundos."
+                ));
+                return;
+            }
+            boolean async = false;
+            try {
+                filterChain.doFilter(request, response);
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new ReleasingListener());
+                    async = true;
+                }
+            } finally {
+                if (!async) {
+                    permits.release();
+                }
+            }
+        }
+
+        // La redirección async no pasa por el filtro; el permiso se libera al terminar la petición
+        private class ReleasingListener implements AsyncListener {
+            private final AtomicBoolean released = new AtomicBoolean();
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                release();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                release();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                release();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // startAsync again on a later dispatch: keep listening on the new context
+                event.getAsyncContext().addListener(this);
+            }
+
+            private void release() {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.labMetricas.LabMetricas.MaintenanceProvider.model.MaintenanceProvider
 import com.labMetricas.LabMetricas.MaintenanceProvider.repository.MaintenanceProviderRepository;
 import com.labMetricas.LabMetricas.MaintenanceType.model.MaintenanceType;
 import com.labMetricas.LabMetricas.MaintenanceType.repository.MaintenanceTypeRepository;
+import com.labMetricas.LabMetricas.auditLog.model.AuditAction;
 import com.labMetricas.LabMetricas.config.ProductionEmailService;
 import com.labMetricas.LabMetricas.enums.TypeResponse;
 import com.labMetricas.LabMetricas.equipment.controller.EquipmentController;
@@ -17,6 +18,7 @@ import com.labMetricas.LabMetricas.maintenance.model.ScheduledMaintenance;
 import com.labMetricas.LabMetricas.maintenance.model.dto.ScheduledMaintenanceRequestDto;
 import com.labMetricas.LabMetricas.maintenance.repository.MaintenanceRepository;
 import com.labMetricas.LabMetricas.maintenance.repository.ScheduledMaintenanceRepository;
+import com.labMetricas.LabMetricas.maintenance.service.MaintenanceStatsService;
 import com.labMetricas.LabMetricas.maintenance.service.ScheduledMaintenanceService;
 import com.labMetricas.LabMetricas.user.model.User;
 import com.labMetricas.LabMetricas.user.repository.UserRepository;
@@ -65,6 +67,9 @@ public class EquipmentService {
     @Autowired
     private ProductionEmailService productionEmailService;
 
+    @Autowired
+    private MaintenanceStatsService maintenanceStatsService;
+
     // Create new equipment
     @Transactional
     public EquipmentDto createEquipment(EquipmentDto equipmentDto) {
@@ -129,12 +134,17 @@ public class EquipmentService {
             scheduledMaintenanceRepository.save(scheduledMaintenance);
 
             // Create audit log
-            scheduledMaintenanceService.createScheduledMaintenanceAuditLog(savedMaintenance, currentUser);
+            scheduledMaintenanceService.createScheduledMaintenanceAuditLog(savedMaintenance, currentUser, AuditAction.CREATE);
 
             // Send notification
             scheduledMaintenanceService.sendScheduledMaintenanceNotification(savedMaintenance, responsible);
         }
 
+        if (!payload.maintenances().isEmpty()) {
+            // Dashboard counters changed
+            maintenanceStatsService.evict();
+        }
+
         // Send notification to assigned user about new equipment
         sendEquipmentAssignmentNotification(savedEquipment);
 
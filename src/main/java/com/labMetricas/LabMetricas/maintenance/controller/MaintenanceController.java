@@ -5,20 +5,27 @@ import com.labMetricas.LabMetricas.equipment.model.Equipment;
 import com.labMetricas.LabMetricas.equipment.repository.EquipmentRepository;
 import com.labMetricas.LabMetricas.MaintenanceType.model.MaintenanceType;
 import com.labMetricas.LabMetricas.maintenance.model.Maintenance;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceBulkReviewDto;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceBulkReviewResultDto;
 import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceInitDataDto;
 import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceRequestDto;
 import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceDetailDto;
 import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceSubmitForReviewDto;
 import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceRejectionDto;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceStatsDto;
 
 import com.labMetricas.LabMetricas.MaintenanceType.repository.MaintenanceTypeRepository;
 import com.labMetricas.LabMetricas.maintenance.repository.ScheduledMaintenanceRepository;
 import com.labMetricas.LabMetricas.maintenance.service.MaintenanceService;
+import com.labMetricas.LabMetricas.maintenance.service.MaintenanceStatsService;
 import com.labMetricas.LabMetricas.user.model.User;
 import com.labMetricas.LabMetricas.user.repository.UserRepository;
+import com.labMetricas.LabMetricas.util.CursorPageResponse;
 import com.labMetricas.LabMetricas.util.ResponseObject;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -34,6 +41,9 @@ public class MaintenanceController {
     @Autowired
     private MaintenanceService maintenanceService;
 
+    @Autowired
+    private MaintenanceStatsService maintenanceStatsService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -200,18 +210,48 @@ public class MaintenanceController {
     }
 
     @GetMapping
-    public ResponseEntity<ResponseObject> getAllMaintenanceRecords() {
-        // Retrieve all maintenance records with full details
-        List<MaintenanceDetailDto> maintenanceDetails = maintenanceService.getAllMaintenanceRecords();
+    public ResponseEntity<ResponseObject> getAllMaintenanceRecords(
+        @RequestParam(required = false) String reviewStatus,
+        @RequestParam(required = false) String priority,
+        @RequestParam(required = false) UUID equipmentId,
+        @RequestParam(required = false) UUID responsibleId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        try {
+            Maintenance.ReviewStatus status = reviewStatus != null
+                ? Maintenance.ReviewStatus.valueOf(reviewStatus.toUpperCase())
+                : null;
+            Maintenance.Priority maintenancePriority = priority != null
+                ? Maintenance.Priority.valueOf(priority.toUpperCase())
+                : null;
+
+            // Retrieve one keyset page of maintenance records with full details
+            CursorPageResponse<MaintenanceDetailDto> maintenancePage = maintenanceService.getMaintenancePage(
+                status,
+                maintenancePriority,
+                equipmentId,
+                responsibleId,
+                cursor,
+                size
+            );
 
-        // Prepare response
-        ResponseObject responseObject = new ResponseObject(
-            "Maintenance records retrieved successfully", 
-            maintenanceDetails,
-            TypeResponse.SUCCESS
-        );
+            // Prepare response
+            ResponseObject responseObject = new ResponseObject(
+                "Maintenance records retrieved successfully", 
+                maintenancePage,
+                TypeResponse.SUCCESS
+            );
 
-        return ResponseEntity.ok(responseObject);
+            return ResponseEntity.ok(responseObject);
+        } catch (IllegalArgumentException e) {
+            ResponseObject responseObject = new ResponseObject(
+                "Invalid filter or cursor: " + e.getMessage(), 
+                null,
+                TypeResponse.ERROR
+            );
+            return ResponseEntity.badRequest().body(responseObject);
+        }
     }
 
     @PostMapping("/submit-for-review")
@@ -223,20 +263,30 @@ public class MaintenanceController {
         User currentUser = userRepository.findByEmail(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Submit maintenance for review
-        Maintenance maintenance = maintenanceService.submitMaintenanceForReview(
-            requestDto.getMaintenanceId(),
-            currentUser
-        );
+        try {
+            // Submit maintenance for review
+            Maintenance maintenance = maintenanceService.submitMaintenanceForReview(
+                requestDto.getMaintenanceId(),
+                currentUser
+            );
 
-        // Prepare response
-        ResponseObject responseObject = new ResponseObject(
-            "Maintenance submitted for review successfully", 
-            maintenance,
-            TypeResponse.SUCCESS
-        );
+            // Prepare response
+            ResponseObject responseObject = new ResponseObject(
+                "Maintenance submitted for review successfully", 
+                maintenance,
+                TypeResponse.SUCCESS
+            );
 
-        return ResponseEntity.ok(responseObject);
+            return ResponseEntity.ok(responseObject);
+        } catch (OptimisticLockingFailureException e) {
+            // Otro revisor cambió el estado primero
+            ResponseObject responseObject = new ResponseObject(
+                e.getMessage(), 
+                null,
+                TypeResponse.ERROR
+            );
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(responseObject);
+        }
     }
 
 
@@ -300,6 +350,19 @@ public class MaintenanceController {
         return ResponseEntity.ok(responseObject);
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<ResponseObject> getMaintenanceStats() {
+        MaintenanceStatsDto stats = maintenanceStatsService.getStats();
+
+        ResponseObject responseObject = new ResponseObject(
+            "Maintenance statistics retrieved successfully", 
+            stats,
+            TypeResponse.SUCCESS
+        );
+
+        return ResponseEntity.ok(responseObject);
+    }
+
     @GetMapping("/pending-review")
     public ResponseEntity<ResponseObject> getPendingReviewMaintenance() {
         List<MaintenanceDetailDto> maintenanceList = maintenanceService.getPendingReviewMaintenance();
@@ -387,20 +450,34 @@ public class MaintenanceController {
     }
 
     @GetMapping("/my-maintenance")
-    public ResponseEntity<ResponseObject> getMyMaintenance(Authentication authentication) {
+    public ResponseEntity<ResponseObject> getMyMaintenance(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size,
+        Authentication authentication
+    ) {
         // Get current user from authentication
         User currentUser = userRepository.findByEmail(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<MaintenanceDetailDto> maintenanceList = maintenanceService.getMyMaintenance(currentUser);
+        try {
+            CursorPageResponse<MaintenanceDetailDto> maintenancePage =
+                maintenanceService.getMyMaintenance(currentUser, cursor, size);
 
-        ResponseObject responseObject = new ResponseObject(
-            "All your maintenance records (created and assigned) retrieved successfully", 
-            maintenanceList,
-            TypeResponse.SUCCESS
-        );
+            ResponseObject responseObject = new ResponseObject(
+                "All your maintenance records (created and assigned) retrieved successfully", 
+                maintenancePage,
+                TypeResponse.SUCCESS
+            );
 
-        return ResponseEntity.ok(responseObject);
+            return ResponseEntity.ok(responseObject);
+        } catch (IllegalArgumentException e) {
+            ResponseObject responseObject = new ResponseObject(
+                "Invalid cursor: " + e.getMessage(), 
+                null,
+                TypeResponse.ERROR
+            );
+            return ResponseEntity.badRequest().body(responseObject);
+        }
     }
 
     @PostMapping("/approved/{maintenanceId}")
@@ -412,20 +489,30 @@ public class MaintenanceController {
         User currentUser = userRepository.findByEmail(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Approve maintenance
-        Maintenance maintenance = maintenanceService.approveMaintenance(
-            maintenanceId,
-            currentUser
-        );
+        try {
+            // Approve maintenance
+            Maintenance maintenance = maintenanceService.approveMaintenance(
+                maintenanceId,
+                currentUser
+            );
 
-        // Prepare response
-        ResponseObject responseObject = new ResponseObject(
-            "Maintenance approved successfully", 
-            maintenance,
-            TypeResponse.SUCCESS
-        );
+            // Prepare response
+            ResponseObject responseObject = new ResponseObject(
+                "Maintenance approved successfully", 
+                maintenance,
+                TypeResponse.SUCCESS
+            );
 
-        return ResponseEntity.ok(responseObject);
+            return ResponseEntity.ok(responseObject);
+        } catch (OptimisticLockingFailureException e) {
+            // Otro revisor cambió el estado primero
+            ResponseObject responseObject = new ResponseObject(
+                e.getMessage(), 
+                null,
+                TypeResponse.ERROR
+            );
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(responseObject);
+        }
     }
 
     @PostMapping("/rejected/{maintenanceId}")
@@ -436,17 +523,74 @@ public class MaintenanceController {
     ) {
         User currentUser = userRepository.findByEmail(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
-        Maintenance maintenance = maintenanceService.rejectMaintenance(
-            maintenanceId,
-            rejectionDto.getRejectionReason(),
-            currentUser
-        );
-        ResponseObject responseObject = new ResponseObject(
-            "Maintenance rejected successfully", 
-            maintenance,
-            TypeResponse.SUCCESS
-        );
+        try {
+            Maintenance maintenance = maintenanceService.rejectMaintenance(
+                maintenanceId,
+                rejectionDto.getRejectionReason(),
+                currentUser
+            );
+            ResponseObject responseObject = new ResponseObject(
+                "Maintenance rejected successfully", 
+                maintenance,
+                TypeResponse.SUCCESS
+            );
 
-        return ResponseEntity.ok(responseObject);
+            return ResponseEntity.ok(responseObject);
+        } catch (IllegalArgumentException e) {
+            // Motivo en blanco (solo espacios pasa @Size): error del cliente
+            ResponseObject responseObject = new ResponseObject(
+                e.getMessage(),
+                null,
+                TypeResponse.ERROR
+            );
+            return ResponseEntity.badRequest().body(responseObject);
+        } catch (OptimisticLockingFailureException e) {
+            // Otro revisor cambió el estado primero
+            ResponseObject responseObject = new ResponseObject(
+                e.getMessage(), 
+                null,
+                TypeResponse.ERROR
+            );
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(responseObject);
+        }
+    }
+
+    @PostMapping("/bulk-review")
+    public ResponseEntity<ResponseObject> bulkReviewMaintenance(
+        @Valid @RequestBody MaintenanceBulkReviewDto requestDto,
+        Authentication authentication
+    ) {
+        User currentUser = userRepository.findByEmail(authentication.getName())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+
+        try {
+            // Apply the same transition to every maintenance in one transaction
+            MaintenanceBulkReviewResultDto result = maintenanceService.bulkReview(requestDto, currentUser);
+
+            ResponseObject responseObject = new ResponseObject(
+                String.format("Bulk review applied: %d processed, %d skipped",
+                    result.getProcessedCount(), result.getSkippedCount()),
+                result,
+                TypeResponse.SUCCESS
+            );
+
+            return ResponseEntity.ok(responseObject);
+        } catch (IllegalArgumentException e) {
+            // Acción REJECT sin motivo: error del cliente
+            ResponseObject responseObject = new ResponseObject(
+                e.getMessage(),
+                null,
+                TypeResponse.ERROR
+            );
+            return ResponseEntity.badRequest().body(responseObject);
+        } catch (OptimisticLockingFailureException e) {
+            // Otro revisor cambió el estado primero
+            ResponseObject responseObject = new ResponseObject(
+                e.getMessage(), 
+                null,
+                TypeResponse.ERROR
+            );
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(responseObject);
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
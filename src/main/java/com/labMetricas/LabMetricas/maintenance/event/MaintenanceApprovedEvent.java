@@ -0,0 +1,7 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import java.util.UUID;
+
+// The creator approved the maintenance
+public record MaintenanceApprovedEvent(UUID maintenanceId, UUID actorId) {
+}
@@ -0,0 +1,16 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceBulkReviewDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// A bulk review was applied; maintenance ids grouped by the user to notify (one digest each)
+public record MaintenanceBulkReviewedEvent(
+    MaintenanceBulkReviewDto.Action action,
+    UUID actorId,
+    Map<UUID, List<UUID>> maintenanceIdsByRecipient,
+    String rejectionReason
+) {
+}
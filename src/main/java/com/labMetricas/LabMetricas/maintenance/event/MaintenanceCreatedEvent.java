@@ -0,0 +1,7 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import java.util.UUID;
+
+// A maintenance was created and assigned to its responsible user (actorId is null for scheduler occurrences)
+public record MaintenanceCreatedEvent(UUID maintenanceId, UUID actorId) {
+}
@@ -0,0 +1,7 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import java.util.UUID;
+
+// Maintenance was logically deleted
+public record MaintenanceDeletedEvent(UUID maintenanceId, UUID actorId) {
+}
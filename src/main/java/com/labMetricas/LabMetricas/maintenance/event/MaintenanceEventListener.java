@@ -0,0 +1,408 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import com.labMetricas.LabMetricas.Notice.service.NoticeService;
+import com.labMetricas.LabMetricas.config.ProductionEmailService;
+import com.labMetricas.LabMetricas.maintenance.model.Maintenance;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceBulkReviewDto;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceDetailDto;
+import com.labMetricas.LabMetricas.maintenance.repository.MaintenanceRepository;
+import com.labMetricas.LabMetricas.user.model.User;
+import com.labMetricas.LabMetricas.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Side effects of maintenance workflow transitions: emails and notices.
+ *
+ * Handlers run only after the publishing transaction commits, on the bounded
+ * maintenanceEventExecutor. The request thread and its DB connection never wait on Resend,
+ * and a rolled-back write never notifies anyone. Events carry ids; each handler reloads the
+ * maintenance in its own transaction.
+ */
+@Component
+public class MaintenanceEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceEventListener.class);
+
+    @Autowired
+    private MaintenanceRepository maintenanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NoticeService noticeService;
+
+    @Autowired
+    private ProductionEmailService productionEmailService;
+
+    @Async("maintenanceEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMaintenanceCreated(MaintenanceCreatedEvent event) {
+        Maintenance maintenance = loadMaintenance(event.maintenanceId());
+        if (maintenance == null) {
+            return;
+        }
+        // Send notification to responsible person about new assignment
+        sendMaintenanceAssignmentNotification(maintenance, maintenance.getResponsible(), loadUser(event.actorId()));
+
+        // Create notice notification for the responsible person
+        noticeService.createMaintenanceNotice(maintenance, maintenance.getResponsible());
+    }
+
+    @Async("maintenanceEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMaintenanceUpdated(MaintenanceUpdatedEvent event) {
+        Maintenance maintenance = loadMaintenance(event.maintenanceId());
+        User currentUser = loadUser(event.actorId());
+        if (maintenance == null || currentUser == null) {
+            return;
+        }
+        sendMaintenanceUpdateNotification(maintenance, currentUser);
+    }
+
+    @Async("maintenanceEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMaintenanceStatusChanged(MaintenanceStatusChangedEvent event) {
+        Maintenance maintenance = loadMaintenance(event.maintenanceId());
+        User currentUser = loadUser(event.actorId());
+        if (maintenance == null || currentUser == null) {
+            return;
+        }
+        sendMaintenanceStatusUpdateNotification(maintenance, currentUser);
+    }
+
+    @Async("maintenanceEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMaintenanceDeleted(MaintenanceDeletedEvent event) {
+        Maintenance maintenance = loadMaintenance(event.maintenanceId());
+        User currentUser = loadUser(event.actorId());
+        if (maintenance == null || currentUser == null) {
+            return;
+        }
+        sendMaintenanceDeletionNotification(maintenance, currentUser);
+    }
+
+    @Async("maintenanceEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMaintenanceSubmittedForReview(MaintenanceSubmittedForReviewEvent event) {
+        Maintenance maintenance = loadMaintenance(event.maintenanceId());
+        User currentUser = loadUser(event.actorId());
+        if (maintenance == null || currentUser == null || maintenance.getRequestedBy() == null) {
+            return;
+        }
+        // Send notification to creator (who assigned the maintenance)
+        sendMaintenanceReviewRequestNotification(maintenance, maintenance.getRequestedBy(), currentUser);
+
+        // Create notice notification for the creator
+        noticeService.createMaintenanceReviewRequestNotice(maintenance, maintenance.getRequestedBy());
+    }
+
+    @Async("maintenanceEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMaintenanceApproved(MaintenanceApprovedEvent event) {
+        Maintenance maintenance = loadMaintenance(event.maintenanceId());
+        User currentUser = loadUser(event.actorId());
+        if (maintenance == null || currentUser == null) {
+            return;
+        }
+        // Send notification to the responsible person about approval
+        sendMaintenanceApprovalNotification(maintenance, currentUser);
+
+        // Create notice notification for the responsible person
+        noticeService.createMaintenanceApprovalNotice(maintenance, maintenance.getResponsible());
+    }
+
+    @Async("maintenanceEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMaintenanceRejected(MaintenanceRejectedEvent event) {
+        Maintenance maintenance = loadMaintenance(event.maintenanceId());
+        User currentUser = loadUser(event.actorId());
+        if (maintenance == null || currentUser == null) {
+            return;
+        }
+        // Send notification to the responsible person about rejection with reason
+        sendMaintenanceRejectionNotification(maintenance, currentUser, event.rejectionReason());
+
+        // Create notice notification for the responsible person
+        noticeService.createMaintenanceRejectionNotice(maintenance, maintenance.getResponsible(), event.rejectionReason());
+    }
+
+    @Async("maintenanceEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMaintenanceBulkReviewed(MaintenanceBulkReviewedEvent event) {
+        User currentUser = loadUser(event.actorId());
+        List<UUID> allIds = event.maintenanceIdsByRecipient().values().stream()
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+
+        // Details of every reviewed maintenance in one query, then one digest per recipient
+        Map<UUID, MaintenanceDetailDto> details = maintenanceRepository.findDetailsByIdIn(allIds).stream()
+            .collect(Collectors.toMap(MaintenanceDetailDto::getId, Function.identity()));
+
+        event.maintenanceIdsByRecipient().forEach((recipientId, maintenanceIds) -> {
+            User recipient = loadUser(recipientId);
+            if (recipient == null) {
+                return;
+            }
+            try {
+                noticeService.createMaintenanceDigestNotice(
+                    recipient,
+                    digestTitle(event.action(), maintenanceIds.size()),
+                    digestDescription(event, currentUser, maintenanceIds, details)
+                );
+            } catch (Exception e) {
+                logger.error("Failed to send bulk review digest to: {}", recipient.getEmail(), e);
+            }
+        });
+    }
+
+    private String digestTitle(MaintenanceBulkReviewDto.Action action, int count) {
+        switch (action) {
+            case SUBMIT:
+                return count + " Mantenimientos Enviados para Revisión";
+            case APPROVE:
+                return count + " Mantenimientos Aprobados";
+            default:
+                return count + " Mantenimientos Rechazados";
+        }
+    }
+
+    private String digestDescription(MaintenanceBulkReviewedEvent event, User currentUser,
+                                     List<UUID> maintenanceIds, Map<UUID, MaintenanceDetailDto> details) {
+        String actorName = currentUser != null ? currentUser.getName() : "otro usuario";
+        StringBuilder description = new StringBuilder();
+        switch (event.action()) {
+            case SUBMIT:
+                description.append("Los siguientes mantenimientos han sido enviados para revisión por ").append(actorName)
+                    .append(". Por favor, revisa y aprueba o rechaza cada uno:");
+                break;
+            case APPROVE:
+                description.append("Los siguientes mantenimientos han sido APROBADOS por ").append(actorName).append(":");
+                break;
+            default:
+                description.append("Los siguientes mantenimientos han sido RECHAZADOS por ").append(actorName)
+                    .append(". Razón del rechazo: ").append(event.rejectionReason())
+                    .append(". Han sido devueltos a estado IN_PROGRESS:");
+                break;
+        }
+        for (UUID maintenanceId : maintenanceIds) {
+            MaintenanceDetailDto detail = details.get(maintenanceId);
+            if (detail != null) {
+                description.append(" ").append(detail.getCode())
+                    .append(" (").append(detail.getEquipmentName()).append(");");
+            }
+        }
+        return description.toString();
+    }
+
+    private Maintenance loadMaintenance(UUID maintenanceId) {
+        Maintenance maintenance = maintenanceRepository.findById(maintenanceId).orElse(null);
+        if (maintenance == null) {
+            logger.warn("Maintenance {} no longer exists, skipping notifications", maintenanceId);
+        }
+        return maintenance;
+    }
+
+    private User loadUser(UUID userId) {
+        return userId != null ? userRepository.findById(userId).orElse(null) : null;
+    }
+
+    private void sendMaintenanceStatusUpdateNotification(Maintenance maintenance, User responsible) {
+        // Send real email notification using ProductionEmailService
+        try {
+            String action = "Actualización de Estado de Mantenimiento";
+            String details = String.format(
+                "El mantenimiento %s para el equipo %s ha cambiado de estado a: %s",
+                maintenance.getCode(),
+                maintenance.getEquipment().getName(),
+                maintenance.getStatus() ? "Activo" : "Inactivo"
+            );
+            
+            productionEmailService.sendActionConfirmation(
+                responsible.getEmail(),
+                responsible.getName(),
+                action,
+                details
+            );
+            
+            logger.info("Maintenance status update email sent to: {}", responsible.getEmail());
+        } catch (Exception e) {
+            logger.error("Failed to send maintenance status update email to: {}", responsible.getEmail(), e);
+        }
+    }
+
+    private void sendMaintenanceUpdateNotification(Maintenance maintenance, User currentUser) {
+        // Send real email notification using ProductionEmailService
+        try {
+            String action = "Actualización de Mantenimiento";
+            String details = String.format(
+                "El mantenimiento %s para el equipo %s ha sido actualizado por %s",
+                maintenance.getCode(),
+                maintenance.getEquipment().getName(),
+                currentUser.getName()
+            );
+            
+            productionEmailService.sendActionConfirmation(
+                maintenance.getResponsible().getEmail(),
+                maintenance.getResponsible().getName(),
+                action,
+                details
+            );
+            
+            logger.info("Maintenance update email sent to: {}", maintenance.getResponsible().getEmail());
+        } catch (Exception e) {
+            logger.error("Failed to send maintenance update email to: {}", maintenance.getResponsible().getEmail(), e);
+        }
+    }
+
+    private void sendMaintenanceDeletionNotification(Maintenance maintenance, User currentUser) {
+        // Send real email notification using ProductionEmailService
+        try {
+            String action = "Eliminación de Mantenimiento";
+            String details = String.format(
+                "El mantenimiento %s para el equipo %s ha sido marcado como eliminado por %s",
+                maintenance.getCode(),
+                maintenance.getEquipment().getName(),
+                currentUser.getName()
+            );
+            
+            productionEmailService.sendActionConfirmation(
+                maintenance.getResponsible().getEmail(),
+                maintenance.getResponsible().getName(),
+                action,
+                details
+            );
+            
+            logger.info("Maintenance deletion email sent to: {}", maintenance.getResponsible().getEmail());
+        } catch (Exception e) {
+            logger.error("Failed to send maintenance deletion email to: {}", maintenance.getResponsible().getEmail(), e);
+        }
+    }
+
+    private void sendMaintenanceReviewRequestNotification(Maintenance maintenance, User reviewer, User creator) {
+        // Send real email notification using ProductionEmailService
+        try {
+            String action = "Solicitud de Revisión de Mantenimiento";
+            String details = String.format(
+                "El mantenimiento %s para el equipo %s ha sido enviado para revisión por %s. " +
+                "Por favor, revisa y aprueba o rechaza este mantenimiento.",
+                maintenance.getCode(),
+                maintenance.getEquipment().getName(),
+                creator.getName()
+            );
+            
+            productionEmailService.sendActionConfirmation(
+                reviewer.getEmail(),
+                reviewer.getName(),
+                action,
+                details
+            );
+            
+            logger.info("Maintenance review request email sent to: {}", reviewer.getEmail());
+        } catch (Exception e) {
+            logger.error("Failed to send maintenance review request email to: {}", reviewer.getEmail(), e);
+        }
+    }
+
+    private void sendMaintenanceAssignmentNotification(Maintenance maintenance, User responsible, User creator) {
+        // Send real email notification using ProductionEmailService
+        try {
+            String action = "Nueva Asignación de Mantenimiento";
+            String details = String.format(
+                "Se te ha asignado un nuevo mantenimiento: %s para el equipo %s. " +
+                "Tipo: %s, Prioridad: %s, Descripción: %s. " +
+                "Asignado por: %s",
+                maintenance.getCode(),
+                maintenance.getEquipment().getName(),
+                maintenance.getMaintenanceType().getName(),
+                maintenance.getPriority().name(),
+                maintenance.getDescription(),
+                creator != null ? creator.getName() : "Mantenimiento programado"
+            );
+            
+            productionEmailService.sendActionConfirmation(
+                responsible.getEmail(),
+                responsible.getName(),
+                action,
+                details
+            );
+            
+            logger.info("Maintenance assignment email sent to: {}", responsible.getEmail());
+        } catch (Exception e) {
+            logger.error("Failed to send maintenance assignment email to: {}", responsible.getEmail(), e);
+        }
+    }
+
+    private void sendMaintenanceApprovalNotification(Maintenance maintenance, User reviewer) {
+        // Send real email notification using ProductionEmailService
+        try {
+            String action = "Mantenimiento Aprobado";
+            String details = String.format(
+                "Tu mantenimiento %s para el equipo %s ha sido APROBADO por %s. " +
+                "El mantenimiento está listo para proceder.",
+                maintenance.getCode(),
+                maintenance.getEquipment().getName(),
+                reviewer.getName()
+            );
+            
+            productionEmailService.sendActionConfirmation(
+                maintenance.getResponsible().getEmail(),
+                maintenance.getResponsible().getName(),
+                action,
+                details
+            );
+            
+            logger.info("Maintenance approval email sent to: {}", maintenance.getResponsible().getEmail());
+        } catch (Exception e) {
+            logger.error("Failed to send maintenance approval email to: {}", maintenance.getResponsible().getEmail(), e);
+        }
+    }
+
+    private void sendMaintenanceRejectionNotification(Maintenance maintenance, User reviewer, String rejectionReason) {
+        // Send real email notification using ProductionEmailService
+        try {
+            String action = "Mantenimiento Rechazado";
+            String details = String.format(
+                "Tu mantenimiento %s para el equipo %s ha sido RECHAZADO por %s. " +
+                "Razón del rechazo: %s. " +
+                "El mantenimiento ha sido devuelto a estado IN_PROGRESS para que puedas hacer los ajustes necesarios.",
+                maintenance.getCode(),
+                maintenance.getEquipment().getName(),
+                reviewer.getName(),
+                rejectionReason
+            );
+            
+            productionEmailService.sendActionConfirmation(
+                maintenance.getResponsible().getEmail(),
+                maintenance.getResponsible().getName(),
+                action,
+                details
+            );
+            
+            logger.info("Maintenance rejection email sent to: {}", maintenance.getResponsible().getEmail());
+        } catch (Exception e) {
+            logger.error("Failed to send maintenance rejection email to: {}", maintenance.getResponsible().getEmail(), e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import java.util.UUID;
+
+// The creator rejected the maintenance and sent it back to IN_PROGRESS
+public record MaintenanceRejectedEvent(UUID maintenanceId, UUID actorId, String rejectionReason) {
+}
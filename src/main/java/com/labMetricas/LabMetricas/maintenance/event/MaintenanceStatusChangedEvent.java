@@ -0,0 +1,7 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import java.util.UUID;
+
+// Maintenance active/inactive status was toggled
+public record MaintenanceStatusChangedEvent(UUID maintenanceId, UUID actorId) {
+}
@@ -0,0 +1,7 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import java.util.UUID;
+
+// The responsible user submitted the maintenance to its creator for review
+public record MaintenanceSubmittedForReviewEvent(UUID maintenanceId, UUID actorId) {
+}
@@ -0,0 +1,7 @@
+package com.labMetricas.LabMetricas.maintenance.event;
+
+import java.util.UUID;
+
+// Maintenance details were edited
+public record MaintenanceUpdatedEvent(UUID maintenanceId, UUID actorId) {
+}
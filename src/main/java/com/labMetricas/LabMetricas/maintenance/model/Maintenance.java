@@ -11,11 +11,25 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "maintenance")
+@Table(name = "maintenance", indexes = {
+    // Listado general paginado por (created_at, id)
+    @Index(name = "idx_maintenance_created_at_id", columnList = "created_at, id"),
+    // "Mis mantenimientos": creados por o asignados al usuario, más recientes primero
+    @Index(name = "idx_maintenance_requested_by_created_at", columnList = "requested_by, created_at"),
+    @Index(name = "idx_maintenance_responsible_created_at", columnList = "responsible, created_at"),
+    // Filtros por estado de revisión, revisor y equipo
+    @Index(name = "idx_maintenance_review_status_created_at", columnList = "review_status, created_at"),
+    @Index(name = "idx_maintenance_reviewed_by_status", columnList = "reviewed_by, review_status, created_at"),
+    @Index(name = "idx_maintenance_equipment_created_at", columnList = "equipment, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,6 +67,12 @@ public class Maintenance {
     @Column(name = "review_status")
     private ReviewStatus reviewStatus = ReviewStatus.IN_PROGRESS;
 
+    // Control de concurrencia optimista: dos revisores no pueden pisarse la decisión
+    @Version
+    @Column(name = "version", columnDefinition = "BIGINT DEFAULT 0", nullable = false)
+    @JsonIgnore
+    private Long version;
+
     @Column(name = "rejection_reason", columnDefinition = "VARCHAR(500)", length = 500)
     private String rejectionReason;
 
@@ -83,6 +103,12 @@ public class Maintenance {
     @JsonIgnore
     private ScheduledMaintenance scheduledMaintenance;
 
+    // Ocurrencia creada por el programador: programa del que sale (null en solicitudes y plantillas)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "schedule")
+    @JsonIgnore
+    private ScheduledMaintenance schedule;
+
     // Priority enum
     public enum Priority {
         LOW, MEDIUM, HIGH, CRITICAL
@@ -93,6 +119,20 @@ public class Maintenance {
         IN_PROGRESS,  // En progreso (automático al crear)
         PENDING,      // Pendiente de revisión por el creador
         APPROVED,     // Aprobado por el creador
-        REJECTED      // Rechazado por el creador
+        REJECTED;     // Rechazado por el creador
+
+        // Transiciones permitidas del flujo de revisión
+        private static final Map<ReviewStatus, Set<ReviewStatus>> TRANSITIONS = new EnumMap<>(ReviewStatus.class);
+
+        static {
+            TRANSITIONS.put(IN_PROGRESS, EnumSet.of(PENDING));                       // Enviar a revisión
+            TRANSITIONS.put(PENDING, EnumSet.of(APPROVED, IN_PROGRESS, REJECTED));   // Aprobar o rechazar (vuelve a en progreso)
+            TRANSITIONS.put(REJECTED, EnumSet.of(PENDING));                          // Reenviar a revisión
+            TRANSITIONS.put(APPROVED, EnumSet.noneOf(ReviewStatus.class));           // Estado final
+        }
+
+        public boolean canTransitionTo(ReviewStatus target) {
+            return TRANSITIONS.get(this).contains(target);
+        }
     }
 } 
\ No newline at end of file
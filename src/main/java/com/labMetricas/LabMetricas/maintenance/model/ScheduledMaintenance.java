@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "scheduled_maintenance")
+@Table(name = "scheduled_maintenance", indexes = {
+    // Due-maintenance scheduler scans by next_maintenance
+    @Index(name = "idx_scheduled_maintenance_next", columnList = "next_maintenance")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,52 @@
+package com.labMetricas.LabMetricas.maintenance.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class MaintenanceBulkReviewDto {
+    @NotNull(message = "Action is required")
+    private Action action;
+
+    @NotEmpty(message = "At least one maintenance ID is required")
+    @Size(max = 500, message = "At most 500 maintenance records can be reviewed at once")
+    private List<UUID> maintenanceIds;
+
+    // Required only for REJECT
+    @Size(max = 500, message = "Rejection reason must be at most 500 characters")
+    private String rejectionReason;
+
+    public enum Action {
+        SUBMIT,   // Responsable envía a revisión
+        APPROVE,  // Creador aprueba
+        REJECT    // Creador rechaza
+    }
+
+    // Getters and Setters
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public List<UUID> getMaintenanceIds() {
+        return maintenanceIds;
+    }
+
+    public void setMaintenanceIds(List<UUID> maintenanceIds) {
+        this.maintenanceIds = maintenanceIds;
+    }
+
+    public String getRejectionReason() {
+        return rejectionReason;
+    }
+
+    public void setRejectionReason(String rejectionReason) {
+        this.rejectionReason = rejectionReason;
+    }
+}
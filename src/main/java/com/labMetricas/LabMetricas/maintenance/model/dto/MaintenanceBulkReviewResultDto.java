@@ -0,0 +1,44 @@
+package com.labMetricas.LabMetricas.maintenance.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MaintenanceBulkReviewResultDto {
+    private List<String> processedCodes = new ArrayList<>();
+    private List<SkippedDto> skipped = new ArrayList<>();
+
+    public void addProcessed(String code) {
+        processedCodes.add(code);
+    }
+
+    public void addSkipped(String maintenanceId, String reason) {
+        skipped.add(new SkippedDto(maintenanceId, reason));
+    }
+
+    // Skipped maintenance DTO
+    public static class SkippedDto {
+        private String maintenanceId;
+        private String reason;
+
+        public SkippedDto() {}
+
+        public SkippedDto(String maintenanceId, String reason) {
+            this.maintenanceId = maintenanceId;
+            this.reason = reason;
+        }
+
+        // Getters and Setters
+        public String getMaintenanceId() { return maintenanceId; }
+        public void setMaintenanceId(String maintenanceId) { this.maintenanceId = maintenanceId; }
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+
+    // Getters and Setters
+    public List<String> getProcessedCodes() { return processedCodes; }
+    public void setProcessedCodes(List<String> processedCodes) { this.processedCodes = processedCodes; }
+    public List<SkippedDto> getSkipped() { return skipped; }
+    public void setSkipped(List<SkippedDto> skipped) { this.skipped = skipped; }
+    public int getProcessedCount() { return processedCodes.size(); }
+    public int getSkippedCount() { return skipped.size(); }
+}
@@ -48,6 +48,50 @@ public class MaintenanceDetailDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Constructor used by the JPQL projections in MaintenanceRepository
+    public MaintenanceDetailDto(
+        UUID id, String code, String description, Boolean status,
+        Maintenance.Priority priority, Maintenance.ReviewStatus reviewStatus, String rejectionReason,
+        UUID equipmentId, String equipmentName, String equipmentCode, String equipmentLocation,
+        UUID maintenanceTypeId, String maintenanceTypeName,
+        UUID responsibleUserId, String responsibleUserName, String responsibleUserEmail, String responsibleUserRole,
+        UUID requestedById, String requestedByName, String requestedByEmail,
+        UUID reviewedById, String reviewedByName, String reviewedByEmail, LocalDateTime reviewedAt,
+        LocalDateTime createdAt, LocalDateTime updatedAt
+    ) {
+        this.id = id;
+        this.code = code;
+        this.description = description;
+        this.status = status;
+        this.priority = priority != null ? priority.name() : null;
+        this.reviewStatus = reviewStatus != null ? reviewStatus.name() : null;
+        this.rejectionReason = rejectionReason;
+
+        this.equipmentId = equipmentId;
+        this.equipmentName = equipmentName;
+        this.equipmentCode = equipmentCode;
+        this.equipmentLocation = equipmentLocation;
+
+        this.maintenanceTypeId = maintenanceTypeId;
+        this.maintenanceTypeName = maintenanceTypeName;
+
+        this.responsibleUserId = responsibleUserId;
+        this.responsibleUserName = responsibleUserName;
+        this.responsibleUserEmail = responsibleUserEmail;
+        this.responsibleUserRole = responsibleUserRole;
+
+        this.requestedById = requestedById;
+        this.requestedByName = requestedByName;
+        this.requestedByEmail = requestedByEmail;
+
+        this.reviewedById = reviewedById;
+        this.reviewedByName = reviewedByName;
+        this.reviewedByEmail = reviewedByEmail;
+        this.reviewedAt = reviewedAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Constructor to map from Maintenance entity
     public MaintenanceDetailDto(Maintenance maintenance) {
         this.id = maintenance.getId();
@@ -0,0 +1,118 @@
+package com.labMetricas.LabMetricas.maintenance.model.dto;
+
+import com.labMetricas.LabMetricas.maintenance.model.Maintenance;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class MaintenanceStatsDto {
+    private long total;
+    private Map<Maintenance.ReviewStatus, Long> byReviewStatus = new EnumMap<>(Maintenance.ReviewStatus.class);
+    private Map<Maintenance.Priority, Long> byPriority = new EnumMap<>(Maintenance.Priority.class);
+    private List<EquipmentCountDto> byEquipment = new ArrayList<>();
+    private long programmed;
+    private long nonProgrammed;
+    private LocalDateTime generatedAt;
+
+    public MaintenanceStatsDto() {
+        for (Maintenance.ReviewStatus status : Maintenance.ReviewStatus.values()) {
+            byReviewStatus.put(status, 0L);
+        }
+        for (Maintenance.Priority priority : Maintenance.Priority.values()) {
+            byPriority.put(priority, 0L);
+        }
+    }
+
+    /**
+     * Roll the rows of the single grouped query up into every breakdown.
+     */
+    public static MaintenanceStatsDto fromRows(List<StatsRow> rows) {
+        MaintenanceStatsDto stats = new MaintenanceStatsDto();
+        Map<UUID, EquipmentCountDto> equipmentCounts = new LinkedHashMap<>();
+        for (StatsRow row : rows) {
+            stats.total += row.count;
+            if (row.reviewStatus != null) {
+                stats.byReviewStatus.merge(row.reviewStatus, row.count, Long::sum);
+            }
+            if (row.priority != null) {
+                stats.byPriority.merge(row.priority, row.count, Long::sum);
+            }
+            equipmentCounts
+                .computeIfAbsent(row.equipmentId, id -> new EquipmentCountDto(id.toString(), row.equipmentName, 0L))
+                .count += row.count;
+            if (row.programmed) {
+                stats.programmed += row.count;
+            } else {
+                stats.nonProgrammed += row.count;
+            }
+        }
+        stats.byEquipment = new ArrayList<>(equipmentCounts.values());
+        stats.byEquipment.sort((a, b) -> Long.compare(b.count, a.count));
+        stats.generatedAt = LocalDateTime.now();
+        return stats;
+    }
+
+    // One row per (reviewStatus, priority, equipment, programmed) group
+    public static class StatsRow {
+        private final Maintenance.ReviewStatus reviewStatus;
+        private final Maintenance.Priority priority;
+        private final UUID equipmentId;
+        private final String equipmentName;
+        private final boolean programmed;
+        private final long count;
+
+        public StatsRow(Maintenance.ReviewStatus reviewStatus, Maintenance.Priority priority,
+                        UUID equipmentId, String equipmentName, Integer programmed, Long count) {
+            this.reviewStatus = reviewStatus;
+            this.priority = priority;
+            this.equipmentId = equipmentId;
+            this.equipmentName = equipmentName;
+            this.programmed = programmed != null && programmed == 1;
+            this.count = count;
+        }
+    }
+
+    // Equipment Count DTO
+    public static class EquipmentCountDto {
+        private String equipmentId;
+        private String equipmentName;
+        private long count;
+
+        public EquipmentCountDto() {}
+
+        public EquipmentCountDto(String equipmentId, String equipmentName, long count) {
+            this.equipmentId = equipmentId;
+            this.equipmentName = equipmentName;
+            this.count = count;
+        }
+
+        // Getters and Setters
+        public String getEquipmentId() { return equipmentId; }
+        public void setEquipmentId(String equipmentId) { this.equipmentId = equipmentId; }
+        public String getEquipmentName() { return equipmentName; }
+        public void setEquipmentName(String equipmentName) { this.equipmentName = equipmentName; }
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+    }
+
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public Map<Maintenance.ReviewStatus, Long> getByReviewStatus() { return byReviewStatus; }
+    public void setByReviewStatus(Map<Maintenance.ReviewStatus, Long> byReviewStatus) { this.byReviewStatus = byReviewStatus; }
+    public Map<Maintenance.Priority, Long> getByPriority() { return byPriority; }
+    public void setByPriority(Map<Maintenance.Priority, Long> byPriority) { this.byPriority = byPriority; }
+    public List<EquipmentCountDto> getByEquipment() { return byEquipment; }
+    public void setByEquipment(List<EquipmentCountDto> byEquipment) { this.byEquipment = byEquipment; }
+    public long getProgrammed() { return programmed; }
+    public void setProgrammed(long programmed) { this.programmed = programmed; }
+    public long getNonProgrammed() { return nonProgrammed; }
+    public void setNonProgrammed(long nonProgrammed) { this.nonProgrammed = nonProgrammed; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+}
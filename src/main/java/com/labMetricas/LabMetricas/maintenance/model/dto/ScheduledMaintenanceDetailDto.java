@@ -55,6 +55,54 @@ public class ScheduledMaintenanceDetailDto {
 
     public ScheduledMaintenanceDetailDto() {}
 
+    // Constructor used by the JPQL projections in MaintenanceRepository
+    public ScheduledMaintenanceDetailDto(
+        UUID id, String code, String description, Boolean status, Maintenance.Priority priority,
+        LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime deletedAt,
+        Maintenance.ReviewStatus reviewStatus, String rejectionReason,
+        UUID equipmentId, String equipmentName, String equipmentCode,
+        UUID maintenanceTypeId, String maintenanceTypeName,
+        UUID responsibleUserId, String responsibleUserName, String responsibleUserEmail,
+        FrequencyType frequencyType, Short frequencyValue, LocalDateTime nextMaintenanceDate,
+        UUID requestedById, String requestedByName, String requestedByEmail,
+        UUID reviewedById, String reviewedByName, String reviewedByEmail, LocalDateTime reviewedAt
+    ) {
+        this.id = id;
+        this.code = code;
+        this.description = description;
+        this.status = status;
+        this.priority = priority != null ? Priority.valueOf(priority.name()) : null;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.deletedAt = deletedAt;
+        this.reviewStatus = reviewStatus != null ? reviewStatus.name() : null;
+        this.rejectionReason = rejectionReason;
+
+        this.equipmentId = equipmentId;
+        this.equipmentName = equipmentName;
+        this.equipmentCode = equipmentCode;
+
+        this.maintenanceTypeId = maintenanceTypeId;
+        this.maintenanceTypeName = maintenanceTypeName;
+
+        this.responsibleUserId = responsibleUserId;
+        this.responsibleUserName = responsibleUserName;
+        this.responsibleUserEmail = responsibleUserEmail;
+
+        this.frequencyType = frequencyType;
+        this.frequencyValue = frequencyValue != null ? frequencyValue.intValue() : null;
+        this.nextMaintenanceDate = nextMaintenanceDate;
+
+        this.requestedById = requestedById;
+        this.requestedByName = requestedByName;
+        this.requestedByEmail = requestedByEmail;
+
+        this.reviewedById = reviewedById;
+        this.reviewedByName = reviewedByName;
+        this.reviewedByEmail = reviewedByEmail;
+        this.reviewedAt = reviewedAt;
+    }
+
     public ScheduledMaintenanceDetailDto(Maintenance maintenance, ScheduledMaintenance scheduledMaintenance) {
         this.id = maintenance.getId();
         this.code = maintenance.getCode();
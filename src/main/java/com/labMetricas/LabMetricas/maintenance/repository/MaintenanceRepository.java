@@ -1,49 +1,209 @@
 package com.labMetricas.LabMetricas.maintenance.repository;
 
 import com.labMetricas.LabMetricas.maintenance.model.Maintenance;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceDetailDto;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceStatsDto;
+import com.labMetricas.LabMetricas.maintenance.model.dto.ScheduledMaintenanceDetailDto;
 import com.labMetricas.LabMetricas.user.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MaintenanceRepository extends JpaRepository<Maintenance, UUID> {
+    // Projections select only the columns the DTOs need, in a single query, so listing
+    // maintenance never triggers the per-row selects of the eager associations
+    String DETAIL_PROJECTION =
+        "SELECT new com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceDetailDto(" +
+        "m.id, m.code, m.description, m.status, m.priority, m.reviewStatus, m.rejectionReason, " +
+        "e.id, e.name, e.code, e.location, " +
+        "t.id, t.name, " +
+        "r.id, r.name, r.email, rr.name, " +
+        "rq.id, rq.name, rq.email, " +
+        "rv.id, rv.name, rv.email, m.reviewedAt, " +
+        "m.createdAt, m.updatedAt) " +
+        "FROM Maintenance m " +
+        "JOIN m.equipment e " +
+        "JOIN m.maintenanceType t " +
+        "JOIN m.responsible r LEFT JOIN r.role rr " +
+        "LEFT JOIN m.requestedBy rq " +
+        "LEFT JOIN m.reviewedBy rv ";
+
+    // Programmed maintenance: the template that owns a schedule row (s) or an occurrence the
+    // scheduler created from one (o); both show the frequency of their schedule
+    String PROGRAMMED = "(s.id IS NOT NULL OR o.id IS NOT NULL)";
+
+    String SCHEDULED_DETAIL_PROJECTION =
+        "SELECT new com.labMetricas.LabMetricas.maintenance.model.dto.ScheduledMaintenanceDetailDto(" +
+        "m.id, m.code, m.description, m.status, m.priority, " +
+        "m.createdAt, m.updatedAt, m.deletedAt, m.reviewStatus, m.rejectionReason, " +
+        "e.id, e.name, e.code, " +
+        "t.id, t.name, " +
+        "r.id, r.name, r.email, " +
+        "COALESCE(s.frequencyType, o.frequencyType), COALESCE(s.frequencyValue, o.frequencyValue), " +
+        "COALESCE(s.nextMaintenance, o.nextMaintenance), " +
+        "rq.id, rq.name, rq.email, " +
+        "rv.id, rv.name, rv.email, m.reviewedAt) " +
+        "FROM Maintenance m " +
+        "LEFT JOIN m.scheduledMaintenance s " +
+        "LEFT JOIN m.schedule o " +
+        "JOIN m.equipment e " +
+        "JOIN m.maintenanceType t " +
+        "JOIN m.responsible r " +
+        "LEFT JOIN m.requestedBy rq " +
+        "LEFT JOIN m.reviewedBy rv ";
+
+    // Find maintenance by reviewer
+    @Query("SELECT m FROM Maintenance m WHERE m.reviewedBy.id = :reviewedById ORDER BY m.createdAt DESC")
+    List<Maintenance> findByReviewedById(@Param("reviewedById") UUID reviewedById);
+
+    // Find pending maintenance for a specific reviewer
+    @Query("SELECT m FROM Maintenance m WHERE m.reviewedBy.id = :reviewedById AND m.reviewStatus = :reviewStatus " +
+           "ORDER BY m.createdAt DESC")
+    List<Maintenance> findByReviewStatusAndReviewedById(@Param("reviewStatus") Maintenance.ReviewStatus reviewStatus,
+                                                        @Param("reviewedById") UUID reviewedById);
+
+    // Count maintenance by program type (P or NP). Programmed maintenance is the templates,
+    // counted on the (unique) schedule side, plus the occurrences linked to a schedule;
+    // non-programmed is the rest, an anti-join on scheduled_maintenance.maintenance
+    @Query("SELECT (SELECT COUNT(s) FROM ScheduledMaintenance s) + " +
+           "(SELECT COUNT(m) FROM Maintenance m WHERE m.schedule IS NOT NULL)")
+    long countByScheduledMaintenanceIsNotNull(); // Count programmed maintenance
+
+    @Query("SELECT COUNT(m) FROM Maintenance m WHERE m.schedule IS NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM ScheduledMaintenance s WHERE s.maintenance = m)")
+    long countByScheduledMaintenanceIsNull(); // Count non-programmed maintenance
+
+    // Dashboard counts: one grouped query, the service rolls it up per dimension
+    @Query("SELECT new com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceStatsDto$StatsRow(" +
+           "m.reviewStatus, m.priority, e.id, e.name, " +
+           "CASE WHEN s.id IS NULL AND m.schedule IS NULL THEN 0 ELSE 1 END, COUNT(m)) " +
+           "FROM Maintenance m JOIN m.equipment e LEFT JOIN m.scheduledMaintenance s " +
+           "GROUP BY m.reviewStatus, m.priority, e.id, e.name, CASE WHEN s.id IS NULL AND m.schedule IS NULL THEN 0 ELSE 1 END")
+    List<MaintenanceStatsDto.StatsRow> findStatsRows();
+
+    // Maintenance detail by id
+    @Query(DETAIL_PROJECTION + "WHERE m.id = :id")
+    Optional<MaintenanceDetailDto> findDetailById(@Param("id") UUID id);
+
+    // Details for a set of maintenance (bulk review digests)
+    @Query(DETAIL_PROJECTION + "WHERE m.id IN :ids ORDER BY m.createdAt DESC")
+    List<MaintenanceDetailDto> findDetailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Load bulk review targets and the associations the transitions read, in one query
+    @Query("SELECT DISTINCT m FROM Maintenance m " +
+           "JOIN FETCH m.equipment " +
+           "JOIN FETCH m.maintenanceType " +
+           "JOIN FETCH m.responsible r LEFT JOIN FETCH r.role " +
+           "LEFT JOIN FETCH m.requestedBy rq LEFT JOIN FETCH rq.role " +
+           "LEFT JOIN FETCH m.scheduledMaintenance " +
+           "WHERE m.id IN :ids")
+    List<Maintenance> findAllForReviewByIdIn(@Param("ids") Collection<UUID> ids);
+
     // Find maintenance by review status
-    List<Maintenance> findByReviewStatus(Maintenance.ReviewStatus reviewStatus);
-    
+    @Query(DETAIL_PROJECTION + "WHERE m.reviewStatus = :reviewStatus ORDER BY m.createdAt DESC")
+    List<MaintenanceDetailDto> findDetailsByReviewStatus(@Param("reviewStatus") Maintenance.ReviewStatus reviewStatus);
+
     // Find maintenance by responsible user
-    List<Maintenance> findByResponsibleId(UUID responsibleId);
-    
+    @Query(DETAIL_PROJECTION + "WHERE m.responsible.id = :responsibleId ORDER BY m.createdAt DESC")
+    List<MaintenanceDetailDto> findDetailsByResponsibleId(@Param("responsibleId") UUID responsibleId);
+
     // Find maintenance by requested user
-    List<Maintenance> findByRequestedById(UUID requestedById);
-    
-    // Find maintenance by reviewer
-    List<Maintenance> findByReviewedById(UUID reviewedById);
-    
-    // Find pending maintenance for a specific reviewer
-    List<Maintenance> findByReviewStatusAndReviewedById(Maintenance.ReviewStatus reviewStatus, UUID reviewedById);
+    @Query(DETAIL_PROJECTION + "WHERE m.requestedBy.id = :requestedById ORDER BY m.createdAt DESC")
+    List<MaintenanceDetailDto> findDetailsByRequestedById(@Param("requestedById") UUID requestedById);
 
     // Find maintenance created by user (ordered by creation date desc)
-    List<Maintenance> findByRequestedByOrderByCreatedAtDesc(User requestedBy);
+    @Query(DETAIL_PROJECTION + "WHERE m.requestedBy = :user AND m.schedule IS NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM ScheduledMaintenance s WHERE s.maintenance = m) " +
+           "ORDER BY m.createdAt DESC")
+    List<MaintenanceDetailDto> findDetailsByRequestedByAndNotProgrammed(@Param("user") User requestedBy); // Solicitudes
 
     // Find maintenance assigned to user (ordered by creation date desc)
-    List<Maintenance> findByResponsibleOrderByCreatedAtDesc(User responsible);
+    @Query(DETAIL_PROJECTION + "WHERE m.responsible = :user AND m.schedule IS NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM ScheduledMaintenance s WHERE s.maintenance = m) " +
+           "ORDER BY m.createdAt DESC")
+    List<MaintenanceDetailDto> findDetailsByResponsibleAndNotProgrammed(@Param("user") User responsible); // Solicitudes
 
-    // Find maintenance created by user (ordered by creation date desc)
-    List<Maintenance> findByRequestedByAndScheduledMaintenanceIsNullOrderByCreatedAtDesc(User requestedBy); // Solicitudes
-    
-    // Find maintenance assigned to user (ordered by creation date desc)
-    List<Maintenance> findByResponsibleAndScheduledMaintenanceIsNullOrderByCreatedAtDesc(User responsible); // Solicitudes
+    // Keyset page ordered by (createdAt, id) desc; null filters and a null cursor are ignored
+    @Query(DETAIL_PROJECTION +
+           "WHERE (:reviewStatus IS NULL OR m.reviewStatus = :reviewStatus) " +
+           "AND (:priority IS NULL OR m.priority = :priority) " +
+           "AND (:equipmentId IS NULL OR m.equipment.id = :equipmentId) " +
+           "AND (:responsibleId IS NULL OR m.responsible.id = :responsibleId) " +
+           "AND (CAST(:cursorCreatedAt AS LocalDateTime) IS NULL OR m.createdAt < :cursorCreatedAt " +
+           "     OR (m.createdAt = :cursorCreatedAt AND m.id < :cursorId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MaintenanceDetailDto> findDetailPage(
+        @Param("reviewStatus") Maintenance.ReviewStatus reviewStatus,
+        @Param("priority") Maintenance.Priority priority,
+        @Param("equipmentId") UUID equipmentId,
+        @Param("responsibleId") UUID responsibleId,
+        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+        @Param("cursorId") UUID cursorId,
+        Pageable pageable
+    );
 
-    // Find maintenance created by user (ordered by creation date desc)
-    List<Maintenance> findByRequestedByAndScheduledMaintenanceIsNotNullOrderByCreatedAtDesc(User requestedBy); // Programados
+    // Keyset page of maintenance created by or assigned to the user; a maintenance that is
+    // both appears once. Served by the (requested_by, created_at) and (responsible, created_at) indexes
+    @Query(DETAIL_PROJECTION +
+           "WHERE (m.requestedBy.id = :userId OR m.responsible.id = :userId) " +
+           "AND (CAST(:cursorCreatedAt AS LocalDateTime) IS NULL OR m.createdAt < :cursorCreatedAt " +
+           "     OR (m.createdAt = :cursorCreatedAt AND m.id < :cursorId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MaintenanceDetailDto> findMyDetailPage(
+        @Param("userId") UUID userId,
+        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+        @Param("cursorId") UUID cursorId,
+        Pageable pageable
+    );
 
-    // Find maintenance assigned to user (ordered by creation date desc)
-    List<Maintenance> findByResponsibleAndScheduledMaintenanceIsNotNullOrderByCreatedAtDesc(User responsible); // Programados
-    
-    // Count maintenance by program type (P or NP)
-    long countByScheduledMaintenanceIsNotNull(); // Count programmed maintenance
-    long countByScheduledMaintenanceIsNull(); // Count non-programmed maintenance
-}
\ No newline at end of file
+    // Scheduled maintenance detail by id
+    @Query(SCHEDULED_DETAIL_PROJECTION + "WHERE m.id = :id AND " + PROGRAMMED)
+    Optional<ScheduledMaintenanceDetailDto> findScheduledDetailById(@Param("id") UUID id);
+
+    // All scheduled (programmed) maintenance
+    @Query(SCHEDULED_DETAIL_PROJECTION + "WHERE " + PROGRAMMED + " ORDER BY m.createdAt DESC")
+    List<ScheduledMaintenanceDetailDto> findAllScheduledDetails();
+
+    // Find programmed maintenance created by user (ordered by creation date desc)
+    @Query(SCHEDULED_DETAIL_PROJECTION + "WHERE m.requestedBy = :user AND " + PROGRAMMED + " ORDER BY m.createdAt DESC")
+    List<ScheduledMaintenanceDetailDto> findScheduledDetailsByRequestedBy(@Param("user") User requestedBy); // Programados
+
+    // Find programmed maintenance assigned to user (ordered by creation date desc)
+    @Query(SCHEDULED_DETAIL_PROJECTION + "WHERE m.responsible = :user AND " + PROGRAMMED + " ORDER BY m.createdAt DESC")
+    List<ScheduledMaintenanceDetailDto> findScheduledDetailsByResponsible(@Param("user") User responsible); // Programados
+
+    // Conditional review transitions: only apply if the row is still in the expected status.
+    // Return 0 when a concurrent reviewer already moved it (callers raise an optimistic lock failure).
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Maintenance m SET m.reviewStatus = :target, m.updatedAt = :now, m.version = m.version + 1 " +
+           "WHERE m.id = :id AND m.reviewStatus = :expected")
+    int transitionReviewStatus(
+        @Param("id") UUID id,
+        @Param("expected") Maintenance.ReviewStatus expected,
+        @Param("target") Maintenance.ReviewStatus target,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Maintenance m SET m.reviewStatus = :target, m.rejectionReason = :rejectionReason, " +
+           "m.reviewedBy = :reviewer, m.reviewedAt = :now, m.updatedAt = :now, m.version = m.version + 1 " +
+           "WHERE m.id = :id AND m.reviewStatus = :expected")
+    int applyReviewDecision(
+        @Param("id") UUID id,
+        @Param("expected") Maintenance.ReviewStatus expected,
+        @Param("target") Maintenance.ReviewStatus target,
+        @Param("rejectionReason") String rejectionReason,
+        @Param("reviewer") User reviewer,
+        @Param("now") LocalDateTime now
+    );
+}
@@ -2,11 +2,36 @@ package com.labMetricas.LabMetricas.maintenance.repository;
 
 import com.labMetricas.LabMetricas.maintenance.model.ScheduledMaintenance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ScheduledMaintenanceRepository extends JpaRepository<ScheduledMaintenance, UUID> {
-    // Custom query methods can be added here if needed
-} 
\ No newline at end of file
+    // Claim a batch of due schedules (active maintenance only). Rows locked by another
+    // node are skipped, so several instances can run the scheduler without double-firing.
+    // The locks are held until the calling transaction ends.
+    @Query(value = "SELECT s.id FROM scheduled_maintenance s " +
+                   "JOIN maintenance m ON m.id = s.maintenance " +
+                   "WHERE s.next_maintenance <= :now AND m.status = true " +
+                   "ORDER BY s.next_maintenance " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE OF s SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> claimDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Load claimed schedules with everything needed to copy the occurrence in one query
+    @Query("SELECT s FROM ScheduledMaintenance s " +
+           "JOIN FETCH s.maintenance m " +
+           "JOIN FETCH m.equipment " +
+           "JOIN FETCH m.maintenanceType " +
+           "JOIN FETCH m.responsible " +
+           "LEFT JOIN FETCH m.requestedBy " +
+           "WHERE s.id IN :ids")
+    List<ScheduledMaintenance> findAllWithMaintenanceByIdIn(@Param("ids") Collection<UUID> ids);
+}
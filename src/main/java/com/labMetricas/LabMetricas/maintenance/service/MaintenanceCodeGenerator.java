@@ -0,0 +1,159 @@
+package com.labMetricas.LabMetricas.maintenance.service;
+
+import com.labMetricas.LabMetricas.MaintenanceType.model.MaintenanceType;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates maintenance codes with the format YYYY-MM-DD-TYPE-P/NP-COUNTER.
+ *
+ * Counters come in blocks from one PostgreSQL sequence per program type, created with
+ * INCREMENT BY the block size: nextval returns the start of a block that no other instance gets.
+ * The block length is the sequence's own increment_by, read with every reservation, so instances
+ * configured with different block sizes never hand out overlapping counters.
+ * It runs on the caller's connection without locking a row or opening another transaction, and
+ * no Java lock is held meanwhile. Values left in a block when the application stops (or a block
+ * fetched by two threads at once) are skipped: codes stay unique but may have gaps.
+ */
+@Service
+public class MaintenanceCodeGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceCodeGenerator.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // Clave de pg_advisory_xact_lock para crear las secuencias al arrancar
+    private static final long LOCK_KEY = 0x4D434F4445L;
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "P", "maintenance_code_p_seq",
+        "NP", "maintenance_code_np_seq");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Only used when the sequence is created; afterwards the sequence's increment_by is the block size
+    @Value("${maintenance.code.block-size:100}")
+    private int blockSize;
+
+    private final CounterBlock programmed = new CounterBlock("P");
+    private final CounterBlock nonProgrammed = new CounterBlock("NP");
+
+    @PostConstruct
+    void init() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+            SEQUENCES.forEach(this::ensureSequence);
+        });
+    }
+
+    public String generateMaintenanceCode(MaintenanceType maintenanceType, boolean isProgrammed) {
+        String date = LocalDate.now().format(DATE_FORMAT);
+        String typeInitials = getMaintenanceTypeInitials(maintenanceType);
+        CounterBlock block = isProgrammed ? programmed : nonProgrammed;
+        String counter = String.format("%04d", block.next());
+
+        return date + "-" + typeInitials + "-" + block.programType + "-" + counter;
+    }
+
+    public String getMaintenanceTypeInitials(MaintenanceType maintenanceType) {
+        // Get the first 3 characters of the maintenance type name
+        String name = maintenanceType.getName();
+        if (name.length() >= 3) {
+            return name.substring(0, 3).toUpperCase();
+        } else {
+            return name.toUpperCase();
+        }
+    }
+
+    // Creates the sequence on first use; an existing sequence is never altered from local config
+    private void ensureSequence(String programType, String sequence) {
+        Long increment = incrementOf(sequence);
+        if (increment == null) {
+            long start = initialValue(programType);
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence
+                + " INCREMENT BY " + blockSize + " START WITH " + start);
+            logger.info("Created maintenance code sequence {} starting at {}", sequence, start);
+        } else if (increment != blockSize) {
+            logger.warn("Maintenance code sequence {} keeps its block size {} (configured {})",
+                sequence, increment, blockSize);
+        }
+    }
+
+    private Long incrementOf(String sequence) {
+        return jdbcTemplate.query(
+            "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+            rs -> rs.next() ? rs.getLong(1) : null,
+            sequence);
+    }
+
+    // First use: continue after the highest counter already issued for this program type
+    private long initialValue(String programType) {
+        String counter = "-" + programType + "-([0-9]+)$";
+        Long max = jdbcTemplate.queryForObject(
+            "SELECT MAX(CAST(substring(code FROM ?) AS bigint)) FROM maintenance WHERE code ~ ?",
+            Long.class, counter, counter);
+        return max == null ? 1 : max + 1;
+    }
+
+    // Start and length come from the same statement, so the block matches what the sequence handed out
+    private Range reserveBlock(String programType) {
+        String sequence = SEQUENCES.get(programType);
+        Range range = jdbcTemplate.queryForObject(
+            "SELECT nextval(?::regclass), increment_by FROM pg_sequences"
+                + " WHERE schemaname = current_schema() AND sequencename = ?",
+            (rs, rowNum) -> new Range(rs.getLong(1), rs.getLong(1) + rs.getLong(2)),
+            sequence, sequence);
+        logger.info("Reserved maintenance code block {} [{}, {})", programType, range.next.get(), range.limit);
+        return range;
+    }
+
+    private class CounterBlock {
+        private final String programType;
+        private final AtomicReference<Range> current = new AtomicReference<>(new Range(0, 0));
+        // Bloque obtenido por un hilo que perdió la carrera; se usa en el siguiente cambio
+        private final AtomicReference<Range> spare = new AtomicReference<>();
+
+        CounterBlock(String programType) {
+            this.programType = programType;
+        }
+
+        long next() {
+            while (true) {
+                Range range = current.get();
+                long value = range.next.getAndIncrement();
+                if (value < range.limit) {
+                    return value;
+                }
+                Range fresh = spare.getAndSet(null);
+                if (fresh == null) {
+                    fresh = reserveBlock(programType);
+                }
+                if (!current.compareAndSet(range, fresh)) {
+                    spare.set(fresh);
+                }
+            }
+        }
+    }
+
+    private static final class Range {
+        final AtomicLong next;
+        final long limit;
+
+        Range(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
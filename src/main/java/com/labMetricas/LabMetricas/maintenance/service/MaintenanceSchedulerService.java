@@ -0,0 +1,139 @@
+package com.labMetricas.LabMetricas.maintenance.service;
+
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceCreatedEvent;
+import com.labMetricas.LabMetricas.maintenance.model.Maintenance;
+import com.labMetricas.LabMetricas.maintenance.model.ScheduledMaintenance;
+import com.labMetricas.LabMetricas.maintenance.repository.MaintenanceRepository;
+import com.labMetricas.LabMetricas.maintenance.repository.ScheduledMaintenanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Materializes due scheduled maintenance. Every run claims due schedules in batches
+ * (FOR UPDATE SKIP LOCKED, one transaction per batch). For each claimed schedule it creates
+ * the next Maintenance occurrence and moves nextMaintenance past the current time.
+ * Notices go out through MaintenanceCreatedEvent, only after the batch commits.
+ *
+ * The schedule row stays attached to its original maintenance, which acts as the template;
+ * every occurrence is a new maintenance with a programmed (P) code, linked back to the schedule
+ * through Maintenance.schedule so listings and counts treat it as programmed.
+ */
+@Service
+@ConditionalOnProperty(name = "maintenance.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class MaintenanceSchedulerService {
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceSchedulerService.class);
+
+    @Autowired
+    private ScheduledMaintenanceRepository scheduledMaintenanceRepository;
+
+    @Autowired
+    private MaintenanceRepository maintenanceRepository;
+
+    @Autowired
+    private ScheduledMaintenanceService scheduledMaintenanceService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MaintenanceStatsService maintenanceStatsService;
+
+    @Value("${maintenance.scheduler.batch-size:100}")
+    private int batchSize;
+
+    // Upper bound per run so one run cannot monopolize the scheduler thread
+    @Value("${maintenance.scheduler.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MaintenanceSchedulerService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${maintenance.scheduler.delay-ms:60000}",
+               initialDelayString = "${maintenance.scheduler.initial-delay-ms:30000}")
+    public void materializeDueMaintenance() {
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                BatchResult result = transactionTemplate.execute(status -> processBatch(LocalDateTime.now()));
+                total += result.created();
+                if (result.claimed() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // The failed batch is rolled back; its rows stay due and are retried next run
+            logger.error("Error materializing scheduled maintenance", e);
+        }
+        if (total > 0) {
+            logger.info("Materialized {} scheduled maintenance occurrences", total);
+        }
+    }
+
+    private BatchResult processBatch(LocalDateTime now) {
+        List<UUID> ids = scheduledMaintenanceRepository.claimDueIds(now, batchSize);
+        if (ids.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<ScheduledMaintenance> dueSchedules = scheduledMaintenanceRepository.findAllWithMaintenanceByIdIn(ids);
+        List<Maintenance> occurrences = new ArrayList<>(dueSchedules.size());
+        for (ScheduledMaintenance schedule : dueSchedules) {
+            occurrences.add(createOccurrence(schedule, now));
+            schedule.setNextMaintenance(rollForward(schedule, now));
+        }
+        maintenanceRepository.saveAll(occurrences);
+        maintenanceStatsService.evict();
+
+        // Responsible users are notified once the batch has committed
+        for (Maintenance occurrence : occurrences) {
+            eventPublisher.publishEvent(new MaintenanceCreatedEvent(occurrence.getId(), null));
+        }
+
+        return new BatchResult(ids.size(), occurrences.size());
+    }
+
+    private Maintenance createOccurrence(ScheduledMaintenance schedule, LocalDateTime now) {
+        Maintenance template = schedule.getMaintenance();
+        Maintenance occurrence = new Maintenance();
+        occurrence.setSchedule(schedule);
+        occurrence.setDescription(template.getDescription());
+        occurrence.setEquipment(template.getEquipment());
+        occurrence.setMaintenanceType(template.getMaintenanceType());
+        occurrence.setResponsible(template.getResponsible());
+        occurrence.setRequestedBy(template.getRequestedBy());
+        occurrence.setPriority(template.getPriority());
+        occurrence.setCode(scheduledMaintenanceService.generateMaintenanceCode(template.getMaintenanceType(), true));
+        occurrence.setCreatedAt(now);
+        occurrence.setStatus(true);
+        return occurrence;
+    }
+
+    // Skip occurrences missed while the app was down: only one occurrence is created per run
+    private LocalDateTime rollForward(ScheduledMaintenance schedule, LocalDateTime now) {
+        int frequencyValue = Math.max(1, schedule.getFrequencyValue());
+        LocalDateTime next = schedule.getNextMaintenance();
+        while (!next.isAfter(now)) {
+            next = scheduledMaintenanceService.calculateNextMaintenanceDate(next, schedule.getFrequencyType(), frequencyValue);
+        }
+        return next;
+    }
+
+    private record BatchResult(int claimed, int created) {
+    }
+}
@@ -1,10 +1,19 @@
 package com.labMetricas.LabMetricas.maintenance.service;
 
+import com.labMetricas.LabMetricas.auditLog.model.AuditAction;
 import com.labMetricas.LabMetricas.auditLog.model.AuditLog;
 import com.labMetricas.LabMetricas.auditLog.repository.AuditLogRepository;
 import com.labMetricas.LabMetricas.config.ProductionEmailService;
 import com.labMetricas.LabMetricas.equipment.model.Equipment;
 import com.labMetricas.LabMetricas.equipment.repository.EquipmentRepository;
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceApprovedEvent;
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceBulkReviewedEvent;
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceCreatedEvent;
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceDeletedEvent;
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceRejectedEvent;
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceStatusChangedEvent;
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceSubmittedForReviewEvent;
+import com.labMetricas.LabMetricas.maintenance.event.MaintenanceUpdatedEvent;
 import com.labMetricas.LabMetricas.maintenance.model.Maintenance;
 import com.labMetricas.LabMetricas.MaintenanceType.model.MaintenanceType;
 import com.labMetricas.LabMetricas.maintenance.repository.MaintenanceRepository;
@@ -15,23 +24,37 @@ import com.labMetricas.LabMetricas.sentEmail.repository.SentEmailRepository;
 import com.labMetricas.LabMetricas.user.model.User;
 import com.labMetricas.LabMetricas.user.repository.UserRepository;
 import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceRequestDto;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceBulkReviewDto;
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceBulkReviewResultDto;
 import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceDetailDto;
+import com.labMetricas.LabMetricas.util.CursorPageResponse;
+import com.labMetricas.LabMetricas.util.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.ArrayList;
 
 @Service
 public class MaintenanceService {
     private static final Logger logger = LoggerFactory.getLogger(MaintenanceService.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     private MaintenanceRepository maintenanceRepository;
@@ -54,6 +77,18 @@ public class MaintenanceService {
     @Autowired
     private NoticeService noticeService;
 
+    @Autowired
+    private MaintenanceCodeGenerator maintenanceCodeGenerator;
+
+    @Autowired
+    private MaintenanceStatsService maintenanceStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private ProductionEmailService productionEmailService;
 
@@ -79,7 +114,7 @@ public class MaintenanceService {
         maintenance.setMaintenanceType(maintenanceType);
         maintenance.setResponsible(responsible);
         maintenance.setRequestedBy(currentUser); // Set the creator
-        maintenance.setCode(generateMaintenanceCode(maintenanceType, false)); // Non-programmed maintenance
+        maintenance.setCode(maintenanceCodeGenerator.generateMaintenanceCode(maintenanceType, false)); // Non-programmed maintenance
         maintenance.setCreatedAt(LocalDateTime.now());
         maintenance.setStatus(true);
         maintenance.setPriority(convertPriority(requestDto.getPriority()));
@@ -89,58 +124,23 @@ public class MaintenanceService {
         Maintenance savedMaintenance = maintenanceRepository.save(maintenance);
 
         // Create audit log
-        createMaintenanceAuditLog(savedMaintenance, currentUser);
+        createMaintenanceAuditLog(savedMaintenance, currentUser, AuditAction.CREATE);
 
-        // Send notification to responsible person about new assignment
-        sendMaintenanceAssignmentNotification(savedMaintenance, responsible, currentUser);
+        // Email and notice for the responsible person go out after commit
+        eventPublisher.publishEvent(new MaintenanceCreatedEvent(savedMaintenance.getId(), currentUser.getId()));
 
-        // Create notice notification for the responsible person
-        noticeService.createMaintenanceNotice(savedMaintenance, responsible);
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
 
         return savedMaintenance;
     }
 
-    private String generateMaintenanceCode(MaintenanceType maintenanceType, boolean isProgrammed) {
-        // Generate a unique maintenance code with the format: YYYY-MM-DD-TYPE-P/NP-COUNTER
-        LocalDateTime now = LocalDateTime.now();
-        String date = now.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        
-        // Get maintenance type initials (first 3 characters)
-        String typeInitials = getMaintenanceTypeInitials(maintenanceType);
-        
-        // Determine if it's programmed (P) or non-programmed (NP)
-        String programType = isProgrammed ? "P" : "NP";
-        
-        // Get counter for the specific type
-        String counter = getNextCounter(isProgrammed);
-        
-        return date + "-" + typeInitials + "-" + programType + "-" + counter;
-    }
-    
-    private String getMaintenanceTypeInitials(MaintenanceType maintenanceType) {
-        // Get the first 3 characters of the maintenance type name
-        String name = maintenanceType.getName();
-        if (name.length() >= 3) {
-            return name.substring(0, 3).toUpperCase();
-        } else {
-            return name.toUpperCase();
-        }
-    }
-    
-    private String getNextCounter(boolean isProgrammed) {
-        // Get the next counter for the specific program type
-        long count;
-        if (isProgrammed) {
-            count = maintenanceRepository.countByScheduledMaintenanceIsNotNull();
-        } else {
-            count = maintenanceRepository.countByScheduledMaintenanceIsNull();
-        }
-        return String.format("%04d", count + 1);
-    }
-
-    private void createMaintenanceAuditLog(Maintenance maintenance, User user) {
+    private void createMaintenanceAuditLog(Maintenance maintenance, User user, AuditAction actionType) {
         AuditLog auditLog = new AuditLog();
-        auditLog.setAction("CREATE_MAINTENANCE");
+        auditLog.setAction(actionType.name() + "_MAINTENANCE");
+        auditLog.setActionType(actionType);
+        auditLog.setEntityType("Maintenance");
+        auditLog.setEntityId(maintenance.getId().toString());
         auditLog.setUser(user);
         auditLog.setCreatedAt(LocalDateTime.now());
         
@@ -178,41 +178,20 @@ public class MaintenanceService {
         Maintenance updatedMaintenance = maintenanceRepository.save(maintenance);
 
         // Create audit log for status update
-        createMaintenanceAuditLog(updatedMaintenance, currentUser);
+        createMaintenanceAuditLog(updatedMaintenance, currentUser, AuditAction.UPDATE);
 
-        // Send notification about status update
-        sendMaintenanceStatusUpdateNotification(updatedMaintenance, currentUser);
+        // Send notification about status update (after commit)
+        eventPublisher.publishEvent(new MaintenanceStatusChangedEvent(updatedMaintenance.getId(), currentUser.getId()));
 
         // If maintenance is completed (status = false), delete related notices
         if (!updatedMaintenance.getStatus()) {
             noticeService.deleteNoticesByMaintenanceCode(updatedMaintenance.getCode());
         }
 
-        return updatedMaintenance;
-    }
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
 
-    private void sendMaintenanceStatusUpdateNotification(Maintenance maintenance, User responsible) {
-        // Send real email notification using ProductionEmailService
-        try {
-            String action = "Actualización de Estado de Mantenimiento";
-            String details = String.format(
-                "El mantenimiento %s para el equipo %s ha cambiado de estado a: %s",
-                maintenance.getCode(),
-                maintenance.getEquipment().getName(),
-                maintenance.getStatus() ? "Activo" : "Inactivo"
-            );
-            
-            productionEmailService.sendActionConfirmation(
-                responsible.getEmail(),
-                responsible.getName(),
-                action,
-                details
-            );
-            
-            logger.info("Maintenance status update email sent to: {}", responsible.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send maintenance status update email to: {}", responsible.getEmail(), e);
-        }
+        return updatedMaintenance;
     }
 
     private Maintenance.Priority convertPriority(MaintenanceRequestDto.Priority dtoPriority) {
@@ -220,10 +199,37 @@ public class MaintenanceService {
     }
 
     @Transactional(readOnly = true)
-    public List<MaintenanceDetailDto> getAllMaintenanceRecords() {
-        return maintenanceRepository.findAll().stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+    public CursorPageResponse<MaintenanceDetailDto> getMaintenancePage(
+        Maintenance.ReviewStatus reviewStatus,
+        Maintenance.Priority priority,
+        UUID equipmentId,
+        UUID responsibleId,
+        String cursor,
+        Integer size
+    ) {
+        int pageSize = normalizePageSize(size);
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+
+        // Fetch one extra row to know whether there is a next page without counting
+        List<MaintenanceDetailDto> rows = maintenanceRepository.findDetailPage(
+            reviewStatus,
+            priority,
+            equipmentId,
+            responsibleId,
+            keysetCursor != null ? keysetCursor.getCreatedAt() : null,
+            keysetCursor != null ? UUID.fromString(keysetCursor.getId()) : null,
+            PageRequest.of(0, pageSize + 1)
+        );
+
+        return CursorPageResponse.fromRows(rows, pageSize,
+            dto -> new KeysetCursor(dto.getCreatedAt(), dto.getId().toString()));
+    }
+
+    private int normalizePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 
     @Transactional
@@ -259,36 +265,15 @@ public class MaintenanceService {
         Maintenance updatedMaintenance = maintenanceRepository.save(maintenance);
 
         // Create audit log
-        createMaintenanceAuditLog(updatedMaintenance, currentUser);
+        createMaintenanceAuditLog(updatedMaintenance, currentUser, AuditAction.UPDATE);
 
-        // Send notification about maintenance update
-        sendMaintenanceUpdateNotification(updatedMaintenance, currentUser);
+        // Send notification about maintenance update (after commit)
+        eventPublisher.publishEvent(new MaintenanceUpdatedEvent(updatedMaintenance.getId(), currentUser.getId()));
 
-        return updatedMaintenance;
-    }
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
 
-    private void sendMaintenanceUpdateNotification(Maintenance maintenance, User currentUser) {
-        // Send real email notification using ProductionEmailService
-        try {
-            String action = "Actualización de Mantenimiento";
-            String details = String.format(
-                "El mantenimiento %s para el equipo %s ha sido actualizado por %s",
-                maintenance.getCode(),
-                maintenance.getEquipment().getName(),
-                currentUser.getName()
-            );
-            
-            productionEmailService.sendActionConfirmation(
-                maintenance.getResponsible().getEmail(),
-                maintenance.getResponsible().getName(),
-                action,
-                details
-            );
-            
-            logger.info("Maintenance update email sent to: {}", maintenance.getResponsible().getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send maintenance update email to: {}", maintenance.getResponsible().getEmail(), e);
-        }
+        return updatedMaintenance;
     }
 
     @Transactional
@@ -309,44 +294,21 @@ public class MaintenanceService {
         Maintenance deletedMaintenance = maintenanceRepository.save(maintenance);
 
         // Create audit log
-        createMaintenanceAuditLog(deletedMaintenance, currentUser);
+        createMaintenanceAuditLog(deletedMaintenance, currentUser, AuditAction.DELETE);
 
-        // Send notification about maintenance deletion
-        sendMaintenanceDeletionNotification(deletedMaintenance, currentUser);
+        // Send notification about maintenance deletion (after commit)
+        eventPublisher.publishEvent(new MaintenanceDeletedEvent(deletedMaintenance.getId(), currentUser.getId()));
 
-        return deletedMaintenance;
-    }
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
 
-    private void sendMaintenanceDeletionNotification(Maintenance maintenance, User currentUser) {
-        // Send real email notification using ProductionEmailService
-        try {
-            String action = "Eliminación de Mantenimiento";
-            String details = String.format(
-                "El mantenimiento %s para el equipo %s ha sido marcado como eliminado por %s",
-                maintenance.getCode(),
-                maintenance.getEquipment().getName(),
-                currentUser.getName()
-            );
-            
-            productionEmailService.sendActionConfirmation(
-                maintenance.getResponsible().getEmail(),
-                maintenance.getResponsible().getName(),
-                action,
-                details
-            );
-            
-            logger.info("Maintenance deletion email sent to: {}", maintenance.getResponsible().getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send maintenance deletion email to: {}", maintenance.getResponsible().getEmail(), e);
-        }
+        return deletedMaintenance;
     }
 
     @Transactional(readOnly = true)
     public MaintenanceDetailDto getMaintenanceById(UUID maintenanceId) {
-        Maintenance maintenance = maintenanceRepository.findById(maintenanceId)
+        return maintenanceRepository.findDetailById(maintenanceId)
             .orElseThrow(() -> new EntityNotFoundException("Maintenance not found"));
-        
-        return new MaintenanceDetailDto(maintenance);
     }
 
     @Transactional
@@ -364,164 +326,88 @@ public class MaintenanceService {
         }
         
         // Validate that maintenance is in progress
-        if (maintenance.getReviewStatus() != Maintenance.ReviewStatus.IN_PROGRESS) {
+        Maintenance.ReviewStatus currentStatus = maintenance.getReviewStatus();
+        if (!currentStatus.canTransitionTo(Maintenance.ReviewStatus.PENDING)) {
             throw new RuntimeException("Maintenance must be in progress to submit for review");
         }
         
-        // Update maintenance status to pending review
-        maintenance.setReviewStatus(Maintenance.ReviewStatus.PENDING);
-        maintenance.setUpdatedAt(LocalDateTime.now());
-
-        Maintenance updatedMaintenance = maintenanceRepository.save(maintenance);
+        // Update maintenance status to pending review, only if nobody changed it meanwhile
+        int updatedRows = maintenanceRepository.transitionReviewStatus(
+            maintenanceId, currentStatus, Maintenance.ReviewStatus.PENDING, LocalDateTime.now());
+        Maintenance updatedMaintenance = reloadAfterTransition(maintenanceId, updatedRows);
 
         // Create audit log
-        createMaintenanceAuditLog(updatedMaintenance, currentUser);
+        createMaintenanceAuditLog(updatedMaintenance, currentUser, AuditAction.UPDATE);
 
-        // Send notification to creator (who assigned the maintenance)
-        sendMaintenanceReviewRequestNotification(updatedMaintenance, maintenance.getRequestedBy(), currentUser);
+        // Email and notice for the creator (who assigned the maintenance) go out after commit
+        eventPublisher.publishEvent(new MaintenanceSubmittedForReviewEvent(updatedMaintenance.getId(), currentUser.getId()));
 
-        // Create notice notification for the creator
-        noticeService.createMaintenanceReviewRequestNotice(updatedMaintenance, maintenance.getRequestedBy());
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
 
         return updatedMaintenance;
     }
 
-    private void sendMaintenanceReviewRequestNotification(Maintenance maintenance, User reviewer, User creator) {
-        // Send real email notification using ProductionEmailService
-        try {
-            String action = "Solicitud de Revisión de Mantenimiento";
-            String details = String.format(
-                "El mantenimiento %s para el equipo %s ha sido enviado para revisión por %s. " +
-                "Por favor, revisa y aprueba o rechaza este mantenimiento.",
-                maintenance.getCode(),
-                maintenance.getEquipment().getName(),
-                creator.getName()
-            );
-            
-            productionEmailService.sendActionConfirmation(
-                reviewer.getEmail(),
-                reviewer.getName(),
-                action,
-                details
-            );
-            
-            logger.info("Maintenance review request email sent to: {}", reviewer.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send maintenance review request email to: {}", reviewer.getEmail(), e);
-        }
-    }
-
-    private void sendMaintenanceAssignmentNotification(Maintenance maintenance, User responsible, User creator) {
-        // Send real email notification using ProductionEmailService
-        try {
-            String action = "Nueva Asignación de Mantenimiento";
-            String details = String.format(
-                "Se te ha asignado un nuevo mantenimiento: %s para el equipo %s. " +
-                "Tipo: %s, Prioridad: %s, Descripción: %s. " +
-                "Asignado por: %s",
-                maintenance.getCode(),
-                maintenance.getEquipment().getName(),
-                maintenance.getMaintenanceType().getName(),
-                maintenance.getPriority().name(),
-                maintenance.getDescription(),
-                creator.getName()
-            );
-            
-            productionEmailService.sendActionConfirmation(
-                responsible.getEmail(),
-                responsible.getName(),
-                action,
-                details
-            );
-            
-            logger.info("Maintenance assignment email sent to: {}", responsible.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send maintenance assignment email to: {}", responsible.getEmail(), e);
-        }
-    }
-
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getMaintenanceByReviewStatus(Maintenance.ReviewStatus reviewStatus) {
-        return maintenanceRepository.findByReviewStatus(reviewStatus).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByReviewStatus(reviewStatus);
     }
 
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getMaintenanceByResponsibleUser(UUID userId) {
-        return maintenanceRepository.findByResponsibleId(userId).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByResponsibleId(userId);
     }
 
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getMaintenanceByRequestedUser(UUID userId) {
-        return maintenanceRepository.findByRequestedById(userId).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByRequestedById(userId);
     }
 
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getPendingReviewMaintenance() {
-        return maintenanceRepository.findByReviewStatus(Maintenance.ReviewStatus.PENDING).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByReviewStatus(Maintenance.ReviewStatus.PENDING);
     }
 
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getApprovedMaintenance() {
-        return maintenanceRepository.findByReviewStatus(Maintenance.ReviewStatus.APPROVED).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByReviewStatus(Maintenance.ReviewStatus.APPROVED);
     }
 
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getInProgressMaintenance() {
-        return maintenanceRepository.findByReviewStatus(Maintenance.ReviewStatus.IN_PROGRESS).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByReviewStatus(Maintenance.ReviewStatus.IN_PROGRESS);
     }
 
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getRejectedMaintenance() {
-        return maintenanceRepository.findByReviewStatus(Maintenance.ReviewStatus.REJECTED).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByReviewStatus(Maintenance.ReviewStatus.REJECTED);
     }
 
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getMaintenanceCreatedByUser(User user) {
-        return maintenanceRepository.findByRequestedByAndScheduledMaintenanceIsNullOrderByCreatedAtDesc(user).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByRequestedByAndNotProgrammed(user);
     }
 
     @Transactional(readOnly = true)
     public List<MaintenanceDetailDto> getMaintenanceAssignedToUser(User user) {
-        return maintenanceRepository.findByResponsibleAndScheduledMaintenanceIsNullOrderByCreatedAtDesc(user).stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+        return maintenanceRepository.findDetailsByResponsibleAndNotProgrammed(user);
     }
 
     @Transactional(readOnly = true)
-    public List<MaintenanceDetailDto> getMyMaintenance(User user) {
-        // Obtener mantenimientos creados por el usuario
-        List<Maintenance> createdMaintenance = maintenanceRepository.findByRequestedByOrderByCreatedAtDesc(user);
-        
-        // Obtener mantenimientos asignados al usuario
-        List<Maintenance> assignedMaintenance = maintenanceRepository.findByResponsibleOrderByCreatedAtDesc(user);
-        
-        // Combinar ambas listas y eliminar duplicados
-        List<Maintenance> allMaintenance = new ArrayList<>();
-        allMaintenance.addAll(createdMaintenance);
-        allMaintenance.addAll(assignedMaintenance);
-        
-        // Ordenar por fecha de creación (más reciente primero)
-        allMaintenance.sort((m1, m2) -> m2.getCreatedAt().compareTo(m1.getCreatedAt()));
-        
-        return allMaintenance.stream()
-            .map(MaintenanceDetailDto::new)
-            .collect(Collectors.toList());
+    public CursorPageResponse<MaintenanceDetailDto> getMyMaintenance(User user, String cursor, Integer size) {
+        int pageSize = normalizePageSize(size);
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+
+        // Mantenimientos creados por o asignados al usuario, ordenados y sin duplicados en la base de datos
+        List<MaintenanceDetailDto> rows = maintenanceRepository.findMyDetailPage(
+            user.getId(),
+            keysetCursor != null ? keysetCursor.getCreatedAt() : null,
+            keysetCursor != null ? UUID.fromString(keysetCursor.getId()) : null,
+            PageRequest.of(0, pageSize + 1)
+        );
+
+        return CursorPageResponse.fromRows(rows, pageSize,
+            dto -> new KeysetCursor(dto.getCreatedAt(), dto.getId().toString()));
     }
 
     @Transactional
@@ -531,7 +417,8 @@ public class MaintenanceService {
             .orElseThrow(() -> new EntityNotFoundException("Maintenance not found"));
         
         // Validate that maintenance is pending review
-        if (maintenance.getReviewStatus() != Maintenance.ReviewStatus.PENDING) {
+        Maintenance.ReviewStatus currentStatus = maintenance.getReviewStatus();
+        if (!currentStatus.canTransitionTo(Maintenance.ReviewStatus.APPROVED)) {
             throw new RuntimeException("Maintenance is not pending review");
         }
         
@@ -540,23 +427,19 @@ public class MaintenanceService {
             throw new RuntimeException("Only the creator can approve maintenance");
         }
         
-        // Update maintenance status to approved
-        maintenance.setReviewStatus(Maintenance.ReviewStatus.APPROVED);
-        maintenance.setRejectionReason(null);
-        maintenance.setReviewedBy(currentUser);
-        maintenance.setReviewedAt(LocalDateTime.now());
-        maintenance.setUpdatedAt(LocalDateTime.now());
-
-        Maintenance updatedMaintenance = maintenanceRepository.save(maintenance);
+        // Update maintenance status to approved, only if it is still pending
+        int updatedRows = maintenanceRepository.applyReviewDecision(
+            maintenanceId, currentStatus, Maintenance.ReviewStatus.APPROVED, null, currentUser, LocalDateTime.now());
+        Maintenance updatedMaintenance = reloadAfterTransition(maintenanceId, updatedRows);
 
         // Create audit log
-        createMaintenanceAuditLog(updatedMaintenance, currentUser);
+        createMaintenanceAuditLog(updatedMaintenance, currentUser, AuditAction.UPDATE);
 
-        // Send notification to the responsible person about approval
-        sendMaintenanceApprovalNotification(updatedMaintenance, currentUser);
+        // Email and notice for the responsible person go out after commit
+        eventPublisher.publishEvent(new MaintenanceApprovedEvent(updatedMaintenance.getId(), currentUser.getId()));
 
-        // Create notice notification for the responsible person
-        noticeService.createMaintenanceApprovalNotice(updatedMaintenance, maintenance.getResponsible());
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
 
         return updatedMaintenance;
     }
@@ -568,7 +451,8 @@ public class MaintenanceService {
             .orElseThrow(() -> new EntityNotFoundException("Maintenance not found"));
         
         // Validate that maintenance is pending review
-        if (maintenance.getReviewStatus() != Maintenance.ReviewStatus.PENDING) {
+        Maintenance.ReviewStatus currentStatus = maintenance.getReviewStatus();
+        if (!currentStatus.canTransitionTo(Maintenance.ReviewStatus.IN_PROGRESS)) {
             throw new RuntimeException("Maintenance is not pending review");
         }
         
@@ -579,79 +463,138 @@ public class MaintenanceService {
         
         // Validate rejection reason
         if (rejectionReason == null || rejectionReason.trim().isEmpty()) {
-            throw new RuntimeException("Rejection reason is required");
+            throw new IllegalArgumentException("Rejection reason is required");
         }
         
-        // Update maintenance status back to in progress for retry
-        maintenance.setReviewStatus(Maintenance.ReviewStatus.IN_PROGRESS);
-        maintenance.setRejectionReason(rejectionReason);
-        maintenance.setReviewedBy(currentUser);
-        maintenance.setReviewedAt(LocalDateTime.now());
-        maintenance.setUpdatedAt(LocalDateTime.now());
-
-        Maintenance updatedMaintenance = maintenanceRepository.save(maintenance);
+        // Update maintenance status back to in progress for retry, only if it is still pending
+        int updatedRows = maintenanceRepository.applyReviewDecision(
+            maintenanceId, currentStatus, Maintenance.ReviewStatus.IN_PROGRESS, rejectionReason, currentUser, LocalDateTime.now());
+        Maintenance updatedMaintenance = reloadAfterTransition(maintenanceId, updatedRows);
 
         // Create audit log
-        createMaintenanceAuditLog(updatedMaintenance, currentUser);
+        createMaintenanceAuditLog(updatedMaintenance, currentUser, AuditAction.UPDATE);
 
-        // Send notification to the responsible person about rejection with reason
-        sendMaintenanceRejectionNotification(updatedMaintenance, currentUser, rejectionReason);
+        // Email and notice (with the rejection reason) for the responsible person go out after commit
+        eventPublisher.publishEvent(new MaintenanceRejectedEvent(updatedMaintenance.getId(), currentUser.getId(), rejectionReason));
 
-        // Create notice notification for the responsible person
-        noticeService.createMaintenanceRejectionNotice(updatedMaintenance, maintenance.getResponsible(), rejectionReason);
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
 
         return updatedMaintenance;
     }
 
-    private void sendMaintenanceApprovalNotification(Maintenance maintenance, User reviewer) {
-        // Send real email notification using ProductionEmailService
-        try {
-            String action = "Mantenimiento Aprobado";
-            String details = String.format(
-                "Tu mantenimiento %s para el equipo %s ha sido APROBADO por %s. " +
-                "El mantenimiento está listo para proceder.",
-                maintenance.getCode(),
-                maintenance.getEquipment().getName(),
-                reviewer.getName()
-            );
-            
-            productionEmailService.sendActionConfirmation(
-                maintenance.getResponsible().getEmail(),
-                maintenance.getResponsible().getName(),
-                action,
-                details
-            );
-            
-            logger.info("Maintenance approval email sent to: {}", maintenance.getResponsible().getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send maintenance approval email to: {}", maintenance.getResponsible().getEmail(), e);
+    @Transactional
+    public MaintenanceBulkReviewResultDto bulkReview(MaintenanceBulkReviewDto requestDto, User currentUser) {
+        MaintenanceBulkReviewDto.Action action = requestDto.getAction();
+        String rejectionReason = requestDto.getRejectionReason();
+        if (action == MaintenanceBulkReviewDto.Action.REJECT
+            && (rejectionReason == null || rejectionReason.trim().isEmpty())) {
+            throw new IllegalArgumentException("Rejection reason is required");
+        }
+
+        // All targets in one IN query
+        Set<UUID> requestedIds = new LinkedHashSet<>(requestDto.getMaintenanceIds());
+        Map<UUID, Maintenance> targets = new HashMap<>();
+        for (Maintenance maintenance : maintenanceRepository.findAllForReviewByIdIn(requestedIds)) {
+            targets.put(maintenance.getId(), maintenance);
+        }
+
+        MaintenanceBulkReviewResultDto result = new MaintenanceBulkReviewResultDto();
+        Map<UUID, List<UUID>> idsByRecipient = new LinkedHashMap<>();
+        List<Object[]> auditRows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (UUID maintenanceId : requestedIds) {
+            Maintenance maintenance = targets.get(maintenanceId);
+            String skipReason = maintenance == null
+                ? "Maintenance not found"
+                : validateBulkTransition(maintenance, action, currentUser);
+            if (skipReason != null) {
+                result.addSkipped(maintenanceId.toString(), skipReason);
+                continue;
+            }
+
+            User recipient;
+            switch (action) {
+                case SUBMIT:
+                    maintenance.setReviewStatus(Maintenance.ReviewStatus.PENDING);
+                    recipient = maintenance.getRequestedBy();
+                    break;
+                case APPROVE:
+                    maintenance.setReviewStatus(Maintenance.ReviewStatus.APPROVED);
+                    maintenance.setRejectionReason(null);
+                    maintenance.setReviewedBy(currentUser);
+                    maintenance.setReviewedAt(now);
+                    recipient = maintenance.getResponsible();
+                    break;
+                default:
+                    // Rejected maintenance goes back to in progress for retry
+                    maintenance.setReviewStatus(Maintenance.ReviewStatus.IN_PROGRESS);
+                    maintenance.setRejectionReason(rejectionReason);
+                    maintenance.setReviewedBy(currentUser);
+                    maintenance.setReviewedAt(now);
+                    recipient = maintenance.getResponsible();
+                    break;
+            }
+            maintenance.setUpdatedAt(now);
+
+            result.addProcessed(maintenance.getCode());
+            auditRows.add(new Object[] {"BULK_" + action.name() + "_MAINTENANCE: " + maintenance.getCode(),
+                maintenance.getId().toString(), currentUser.getId(), now});
+            if (recipient != null) {
+                idsByRecipient.computeIfAbsent(recipient.getId(), id -> new ArrayList<>()).add(maintenance.getId());
+            }
+        }
+
+        if (!auditRows.isEmpty()) {
+            // Updates are flushed as one JDBC batch, each row guarded by its @Version (a concurrent
+            // single review rolls the whole bulk back with an optimistic lock failure); audit rows use an
+            // identity key, which Hibernate cannot batch, so they go through a plain JDBC batch
+            maintenanceRepository.flush();
+            jdbcTemplate.batchUpdate("INSERT INTO audit_logs (action, action_type, entity_type, entity_id, user_id, created_at) " +
+                "VALUES (?, 'UPDATE', 'Maintenance', ?, ?, ?)", auditRows);
+
+            // One digest email and notice per recipient, after commit
+            eventPublisher.publishEvent(new MaintenanceBulkReviewedEvent(action, currentUser.getId(), idsByRecipient, rejectionReason));
+
+            // Dashboard counters changed
+            maintenanceStatsService.evict();
         }
+
+        return result;
     }
 
-    private void sendMaintenanceRejectionNotification(Maintenance maintenance, User reviewer, String rejectionReason) {
-        // Send real email notification using ProductionEmailService
-        try {
-            String action = "Mantenimiento Rechazado";
-            String details = String.format(
-                "Tu mantenimiento %s para el equipo %s ha sido RECHAZADO por %s. " +
-                "Razón del rechazo: %s. " +
-                "El mantenimiento ha sido devuelto a estado IN_PROGRESS para que puedas hacer los ajustes necesarios.",
-                maintenance.getCode(),
-                maintenance.getEquipment().getName(),
-                reviewer.getName(),
-                rejectionReason
-            );
-            
-            productionEmailService.sendActionConfirmation(
-                maintenance.getResponsible().getEmail(),
-                maintenance.getResponsible().getName(),
-                action,
-                details
-            );
-            
-            logger.info("Maintenance rejection email sent to: {}", maintenance.getResponsible().getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send maintenance rejection email to: {}", maintenance.getResponsible().getEmail(), e);
+    // A conditional update that matched no row means another reviewer changed the status first
+    private Maintenance reloadAfterTransition(UUID maintenanceId, int updatedRows) {
+        if (updatedRows == 0) {
+            throw new OptimisticLockingFailureException("Maintenance review status was changed by another user, reload and try again");
+        }
+        return maintenanceRepository.findById(maintenanceId)
+            .orElseThrow(() -> new EntityNotFoundException("Maintenance not found"));
+    }
+
+    // Same rules as the single submit/approve/reject endpoints; returns why the transition is not allowed
+    private String validateBulkTransition(Maintenance maintenance, MaintenanceBulkReviewDto.Action action, User currentUser) {
+        if (action == MaintenanceBulkReviewDto.Action.SUBMIT) {
+            if (!maintenance.getResponsible().getId().equals(currentUser.getId())) {
+                return "Only the responsible person can submit maintenance for review";
+            }
+            if (!maintenance.getReviewStatus().canTransitionTo(Maintenance.ReviewStatus.PENDING)) {
+                return "Maintenance must be in progress to submit for review";
+            }
+            return null;
+        }
+        Maintenance.ReviewStatus target = action == MaintenanceBulkReviewDto.Action.APPROVE
+            ? Maintenance.ReviewStatus.APPROVED
+            : Maintenance.ReviewStatus.IN_PROGRESS;
+        if (!maintenance.getReviewStatus().canTransitionTo(target)) {
+            return "Maintenance is not pending review";
+        }
+        if (maintenance.getRequestedBy() == null || !maintenance.getRequestedBy().getId().equals(currentUser.getId())) {
+            return action == MaintenanceBulkReviewDto.Action.APPROVE
+                ? "Only the creator can approve maintenance"
+                : "Only the creator can reject maintenance";
         }
+        return null;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.labMetricas.LabMetricas.maintenance.service;
+
+import com.labMetricas.LabMetricas.maintenance.model.dto.MaintenanceStatsDto;
+import com.labMetricas.LabMetricas.maintenance.repository.MaintenanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dashboard counters. The result of the grouped query is kept for a short TTL and invalidated
+ * whenever maintenance is written, so a dashboard load is at most one aggregate query.
+ */
+@Service
+public class MaintenanceStatsService {
+
+    @Autowired
+    private MaintenanceRepository maintenanceRepository;
+
+    @Value("${maintenance.stats.ttl-ms:30000}")
+    private long ttlMillis;
+
+    // Sube con cada evict; una entrada de otra generación ya no vale
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile CachedStats cached;
+
+    @Transactional(readOnly = true)
+    public MaintenanceStatsDto getStats() {
+        CachedStats current = cached;
+        if (current != null && current.generation == generation.get()
+            && current.expiresAt > System.currentTimeMillis()) {
+            return current.stats;
+        }
+        // Generation read before the query: if a write commits meanwhile, this result is
+        // stored under the old generation and ignored by the next read
+        long queriedGeneration = generation.get();
+        MaintenanceStatsDto stats = MaintenanceStatsDto.fromRows(maintenanceRepository.findStatsRows());
+        cached = new CachedStats(stats, queriedGeneration, System.currentTimeMillis() + ttlMillis);
+        return stats;
+    }
+
+    /**
+     * Drop the cached counters. Inside a transaction the generation moves again after commit,
+     * so a read that ran before the commit cannot keep the pre-commit counts, even if it
+     * stores its result after this call.
+     */
+    public void evict() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private record CachedStats(MaintenanceStatsDto stats, long generation, long expiresAt) {
+    }
+}
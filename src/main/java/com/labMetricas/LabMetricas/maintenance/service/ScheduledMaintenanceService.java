@@ -1,5 +1,6 @@
 package com.labMetricas.LabMetricas.maintenance.service;
 
+import com.labMetricas.LabMetricas.auditLog.model.AuditAction;
 import com.labMetricas.LabMetricas.auditLog.model.AuditLog;
 import com.labMetricas.LabMetricas.auditLog.repository.AuditLogRepository;
 import com.labMetricas.LabMetricas.config.ProductionEmailService;
@@ -26,7 +27,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +58,12 @@ public class ScheduledMaintenanceService {
     @Autowired
     private ProductionEmailService productionEmailService;
 
+    @Autowired
+    private MaintenanceCodeGenerator maintenanceCodeGenerator;
+
+    @Autowired
+    private MaintenanceStatsService maintenanceStatsService;
+
     @Transactional
     public Maintenance createScheduledMaintenance(
         ScheduledMaintenanceRequestDto requestDto, 
@@ -117,65 +123,32 @@ public class ScheduledMaintenanceService {
         scheduledMaintenanceRepository.save(scheduledMaintenance);
 
         // Create audit log
-        createScheduledMaintenanceAuditLog(savedMaintenance, currentUser);
+        createScheduledMaintenanceAuditLog(savedMaintenance, currentUser, AuditAction.CREATE);
 
         // Send notification
         sendScheduledMaintenanceNotification(savedMaintenance, responsible);
 
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
+
         return savedMaintenance;
     }
 
     public String generateMaintenanceCode(MaintenanceType maintenanceType, boolean isProgrammed) {
-        // Generate a unique maintenance code with the format: YYYY-MM-DD-TYPE-P/NP-COUNTER
-        LocalDateTime now = LocalDateTime.now();
-        String date = now.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        
-        // Get maintenance type initials (first 3 characters)
-        String typeInitials = getMaintenanceTypeInitials(maintenanceType);
-        
-        // Determine if it's programmed (P) or non-programmed (NP)
-        String programType = isProgrammed ? "P" : "NP";
-        
-        // Get counter for the specific type
-        String counter = getNextCounter(isProgrammed);
-        
-        String finalCode = date + "-" + typeInitials + "-" + programType + "-" + counter;
-        logger.info("Generated code: date={}, typeInitials={}, programType={}, counter={}, finalCode={}", 
-            date, typeInitials, programType, counter, finalCode);
-        
+        String finalCode = maintenanceCodeGenerator.generateMaintenanceCode(maintenanceType, isProgrammed);
+        logger.info("Generated code: {}", finalCode);
         return finalCode;
     }
-    
+
     public String getMaintenanceTypeInitials(MaintenanceType maintenanceType) {
-        // Get the first 3 characters of the maintenance type name
-        String name = maintenanceType.getName();
-        if (name.length() >= 3) {
-            return name.substring(0, 3).toUpperCase();
-        } else {
-            return name.toUpperCase();
-        }
-    }
-    
-    public String getNextCounter(boolean isProgrammed) {
-        // Get the next counter for the specific program type
-        long count;
-        if (isProgrammed) {
-            count = maintenanceRepository.countByScheduledMaintenanceIsNotNull();
-            logger.info("Count for programmed maintenance: {}", count);
-        } else {
-            count = maintenanceRepository.countByScheduledMaintenanceIsNull();
-            logger.info("Count for non-programmed maintenance: {}", count);
-        }
-        String counter = String.format("%04d", count + 1);
-        logger.info("Generated counter: {}", counter);
-        return counter;
+        return maintenanceCodeGenerator.getMaintenanceTypeInitials(maintenanceType);
     }
 
     public FrequencyType convertFrequencyType(ScheduledMaintenanceRequestDto.FrequencyType dtoFrequencyType) {
         return FrequencyType.valueOf(dtoFrequencyType.name());
     }
 
-    private LocalDateTime calculateNextMaintenanceDate(LocalDateTime currentDate, FrequencyType frequencyType, Integer frequencyValue) {
+    public LocalDateTime calculateNextMaintenanceDate(LocalDateTime currentDate, FrequencyType frequencyType, Integer frequencyValue) {
         switch (frequencyType) {
             case DAILY:
                 return currentDate.plusDays(frequencyValue);
@@ -194,9 +167,12 @@ public class ScheduledMaintenanceService {
         return Maintenance.Priority.valueOf(dtoPriority.name());
     }
 
-    public void createScheduledMaintenanceAuditLog(Maintenance maintenance, User user) {
+    public void createScheduledMaintenanceAuditLog(Maintenance maintenance, User user, AuditAction actionType) {
         AuditLog auditLog = new AuditLog();
-        auditLog.setAction("CREATE_SCHED_MAINT");
+        auditLog.setAction(actionType.name() + "_SCHED_MAINT");
+        auditLog.setActionType(actionType);
+        auditLog.setEntityType("Maintenance");
+        auditLog.setEntityId(maintenance.getId().toString());
         auditLog.setUser(user);
         auditLog.setCreatedAt(LocalDateTime.now());
         
@@ -234,11 +210,14 @@ public class ScheduledMaintenanceService {
         Maintenance updatedMaintenance = maintenanceRepository.save(maintenance);
 
         // Create audit log for status update
-        createScheduledMaintenanceAuditLog(updatedMaintenance, currentUser);
+        createScheduledMaintenanceAuditLog(updatedMaintenance, currentUser, AuditAction.UPDATE);
 
         // Send notification about status update
         sendScheduledMaintenanceStatusUpdateNotification(updatedMaintenance, currentUser);
 
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
+
         return updatedMaintenance;
     }
 
@@ -268,10 +247,7 @@ public class ScheduledMaintenanceService {
 
     @Transactional(readOnly = true)
     public List<ScheduledMaintenanceDetailDto> getAllScheduledMaintenanceRecords() {
-        return maintenanceRepository.findAll().stream()
-            .filter(maintenance -> maintenance.getScheduledMaintenance() != null)
-            .map(maintenance -> new ScheduledMaintenanceDetailDto(maintenance, maintenance.getScheduledMaintenance()))
-            .collect(Collectors.toList());
+        return maintenanceRepository.findAllScheduledDetails();
     }
 
     @Transactional
@@ -315,11 +291,14 @@ public class ScheduledMaintenanceService {
         }
 
         // Create audit log
-        createScheduledMaintenanceAuditLog(updatedMaintenance, currentUser);
+        createScheduledMaintenanceAuditLog(updatedMaintenance, currentUser, AuditAction.UPDATE);
 
         // Send notification about maintenance update
         sendScheduledMaintenanceUpdateNotification(updatedMaintenance, currentUser);
 
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
+
         return updatedMaintenance;
     }
 
@@ -365,11 +344,14 @@ public class ScheduledMaintenanceService {
         Maintenance deletedMaintenance = maintenanceRepository.save(maintenance);
 
         // Create audit log
-        createScheduledMaintenanceAuditLog(deletedMaintenance, currentUser);
+        createScheduledMaintenanceAuditLog(deletedMaintenance, currentUser, AuditAction.DELETE);
 
         // Send notification about maintenance deletion
         sendScheduledMaintenanceDeletionNotification(deletedMaintenance, currentUser);
 
+        // Dashboard counters changed
+        maintenanceStatsService.evict();
+
         return deletedMaintenance;
     }
 
@@ -399,42 +381,34 @@ public class ScheduledMaintenanceService {
 
     @Transactional(readOnly = true)
     public ScheduledMaintenanceDetailDto getScheduledMaintenanceById(UUID maintenanceId) {
-        Maintenance maintenance = maintenanceRepository.findById(maintenanceId)
-            .orElseThrow(() -> new EntityNotFoundException("Scheduled Maintenance not found"));
-        
-        if (maintenance.getScheduledMaintenance() == null) {
-            throw new EntityNotFoundException("This maintenance is not a scheduled maintenance");
-        }
-        
-        return new ScheduledMaintenanceDetailDto(maintenance, maintenance.getScheduledMaintenance());
+        // The finder only returns programmed maintenance (a template with a scheduled_maintenance row,
+        // or an occurrence linked to its schedule); anything else exists but is not scheduled
+        return maintenanceRepository.findScheduledDetailById(maintenanceId)
+            .orElseThrow(() -> maintenanceRepository.existsById(maintenanceId)
+                ? new EntityNotFoundException("This maintenance is not a scheduled maintenance")
+                : new EntityNotFoundException("Scheduled Maintenance not found"));
     }
 
     @Transactional(readOnly = true)
     public List<ScheduledMaintenanceDetailDto> getMaintenanceCreatedByUser(User user) {
         logger.info("Searching for maintenance created by user: {} (ID: {})", user.getEmail(), user.getId());
         
-        List<Maintenance> maintenanceList = maintenanceRepository.findByRequestedByAndScheduledMaintenanceIsNotNullOrderByCreatedAtDesc(user);
+        List<ScheduledMaintenanceDetailDto> maintenanceList = maintenanceRepository.findScheduledDetailsByRequestedBy(user);
         logger.info("Found {} maintenance records for user", maintenanceList.size());
         
         // Log each maintenance found for debugging
-        for (Maintenance maintenance : maintenanceList) {
-            logger.info("Maintenance ID: {}, Code: {}, RequestedBy: {}", 
+        for (ScheduledMaintenanceDetailDto maintenance : maintenanceList) {
+            logger.debug("Maintenance ID: {}, Code: {}, RequestedBy: {}", 
                 maintenance.getId(), 
                 maintenance.getCode(),
-                maintenance.getRequestedBy() != null ? maintenance.getRequestedBy().getEmail() : "NULL");
+                maintenance.getRequestedByEmail() != null ? maintenance.getRequestedByEmail() : "NULL");
         }
         
-        return maintenanceList.stream()
-                .filter(maintenance -> maintenance.getScheduledMaintenance() != null)
-                .map(maintenance -> new ScheduledMaintenanceDetailDto(maintenance, maintenance.getScheduledMaintenance()))
-                .collect(Collectors.toList());
+        return maintenanceList;
     }
 
     @Transactional(readOnly = true)
     public List<ScheduledMaintenanceDetailDto> getMaintenanceAssignedToUser(User user) {
-        return maintenanceRepository.findByResponsibleAndScheduledMaintenanceIsNotNullOrderByCreatedAtDesc(user).stream()
-                .filter(maintenance -> maintenance.getScheduledMaintenance() != null)
-                .map(maintenance -> new ScheduledMaintenanceDetailDto(maintenance, maintenance.getScheduledMaintenance()))
-                .collect(Collectors.toList());
+        return maintenanceRepository.findScheduledDetailsByResponsible(user);
     }
 } 
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.labMetricas.LabMetricas.passwordResetToken.controller;
 
+import com.labMetricas.LabMetricas.security.AuthRateLimiter;
 import com.labMetricas.LabMetricas.security.PasswordResetService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,8 +16,18 @@ public class PasswordResetController {
     @Autowired
     private PasswordResetService passwordResetService;
 
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
     @PostMapping("/request")
-    public ResponseEntity<String> requestPasswordReset(@RequestParam String email) {
+    public ResponseEntity<String> requestPasswordReset(@RequestParam String email, HttpServletRequest request) {
+        long retryAfter = authRateLimiter.checkPasswordReset(request, email);
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body("Too many password reset requests");
+        }
+
         boolean result = passwordResetService.initiatePasswordReset(email);
         
         if (result) {
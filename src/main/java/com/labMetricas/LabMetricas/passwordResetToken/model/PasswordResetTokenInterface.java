@@ -6,6 +6,6 @@ import java.io.Serializable;
 import java.util.Optional;
 
 public interface PasswordResetTokenInterface extends JpaRepository<PasswordResetToken, Long>{
-    Optional<PasswordResetToken> findByToken(String token);
+    Optional<PasswordResetToken> findByTokenHash(String tokenHash);
 
 }
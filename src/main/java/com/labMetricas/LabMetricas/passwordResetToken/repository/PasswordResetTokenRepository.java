@@ -3,14 +3,39 @@ package com.labMetricas.LabMetricas.passwordResetToken.repository;
 import com.labMetricas.LabMetricas.passwordResetToken.model.PasswordResetToken;
 import com.labMetricas.LabMetricas.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
-    Optional<PasswordResetToken> findByToken(String token);
-    Optional<PasswordResetToken> findByTokenAndUsedFalseAndExpiryDateAfter(String token, LocalDateTime currentTime);
-    void deleteByUser(User user);
-} 
\ No newline at end of file
+
+    // Validation: one probe on the unique token index, no user join
+    boolean existsByTokenHashAndUsedFalseAndExpiryDateAfter(String tokenHash, LocalDateTime currentTime);
+
+    @Query("SELECT t FROM PasswordResetToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<PasswordResetToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
+
+    // Marks the token used only if it is still valid; 0 rows means it was used or expired meanwhile
+    @Modifying
+    @Query("UPDATE PasswordResetToken t SET t.used = true " +
+           "WHERE t.id = :id AND t.used = false AND t.expiryDate > :now")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.user = :user")
+    void deleteByUser(@Param("user") User user);
+
+    // One chunk of the purge; each call commits on its own so locks stay short
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE id IN (" +
+                   "SELECT id FROM password_reset_tokens WHERE expiry_date < :now OR used = true " +
+                   "LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredOrUsedBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
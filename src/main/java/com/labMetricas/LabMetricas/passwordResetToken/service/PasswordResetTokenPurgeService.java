@@ -0,0 +1,41 @@
+package com.labMetricas.LabMetricas.passwordResetToken.service;
+
+import com.labMetricas.LabMetricas.passwordResetToken.repository.PasswordResetTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes expired and used reset tokens in fixed-size chunks, each in its own transaction, so a
+ * large backlog never turns into one long delete holding locks on the table.
+ */
+@Service
+public class PasswordResetTokenPurgeService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordResetTokenPurgeService.class);
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Value("${security.password-reset.purge-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${security.password-reset.purge-cron:0 45 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = passwordResetTokenRepository.deleteExpiredOrUsedBatch(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            logger.info("Purged {} expired or used password reset tokens", total);
+        }
+    }
+}
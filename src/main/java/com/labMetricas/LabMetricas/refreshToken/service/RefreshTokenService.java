@@ -0,0 +1,117 @@
+package com.labMetricas.LabMetricas.refreshToken.service;
+
+import com.labMetricas.LabMetricas.refreshToken.model.RefreshToken;
+import com.labMetricas.LabMetricas.refreshToken.repository.RefreshTokenRepository;
+import com.labMetricas.LabMetricas.user.model.User;
+import com.labMetricas.LabMetricas.util.TokenHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Rotating refresh tokens. A refresh is one unique-index lookup plus a conditional update, with
+ * no password check, so clients renew access tokens without going back through BCrypt.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt_refresh_expiration:1209600000}")
+    private long refreshExpirationMs;
+
+    // Token recién emitido: el valor en claro solo existe aquí, en la base de datos queda el hash
+    public static class IssuedToken {
+        private final String token;
+        private final User user;
+
+        IssuedToken(String token, User user) {
+            this.token = token;
+            this.user = user;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public User getUser() {
+            return user;
+        }
+    }
+
+    // Login: starts a new token family
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID());
+    }
+
+    /**
+     * Consumes the presented token and returns its successor in the same family. A token that
+     * was already rotated or revoked is treated as stolen and the whole family is revoked.
+     *
+     * @throws BadCredentialsException if the token is unknown, expired, reused or the user is disabled
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public IssuedToken rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(TokenHasher.sha256Hex(rawToken))
+            .orElseThrow(() -> new BadCredentialsException("Refresh token not found"));
+
+        LocalDateTime now = LocalDateTime.now();
+        // La actualización condicional decide entre peticiones concurrentes con el mismo token
+        if (current.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(current.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            logger.warn("Refresh token reuse detected for user {}: revoked {} tokens of family {}",
+                current.getUser().getEmail(), revoked, current.getFamilyId());
+            throw new BadCredentialsException("Refresh token already used");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+
+        User user = current.getUser();
+        if (!user.isEnabled()) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new BadCredentialsException("User disabled");
+        }
+        return new IssuedToken(create(user, current.getFamilyId()), user);
+    }
+
+    // Logout: ends the session the token belongs to; unknown tokens are ignored
+    @Transactional
+    public void revokeFamily(String rawToken) {
+        refreshTokenRepository.findByTokenHashWithUser(TokenHasher.sha256Hex(rawToken))
+            .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(cron = "${security.refresh-token.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        logger.info("Purged {} expired refresh tokens", deleted);
+    }
+
+    private String create(User user, UUID familyId) {
+        String rawToken = TokenHasher.newToken();
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(TokenHasher.sha256Hex(rawToken));
+        token.setUser(user);
+        token.setFamilyId(familyId);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(Duration.ofMillis(refreshExpirationMs)));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+}
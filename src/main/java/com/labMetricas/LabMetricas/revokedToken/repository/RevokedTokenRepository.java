@@ -0,0 +1,27 @@
+package com.labMetricas.LabMetricas.revokedToken.repository;
+
+import com.labMetricas.LabMetricas.revokedToken.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+    boolean existsByJti(String jti);
+
+    // Incremental refresh of the in-memory revocation state
+    List<RevokedToken> findByRevokedAtAfter(LocalDateTime since);
+
+    // Full rebuild: everything that still covers an unexpired token
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
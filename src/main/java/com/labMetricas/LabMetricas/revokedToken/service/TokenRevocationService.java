@@ -0,0 +1,193 @@
+package com.labMetricas.LabMetricas.revokedToken.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.labMetricas.LabMetricas.refreshToken.repository.RefreshTokenRepository;
+import com.labMetricas.LabMetricas.revokedToken.model.RevokedToken;
+import com.labMetricas.LabMetricas.revokedToken.repository.RevokedTokenRepository;
+import com.labMetricas.LabMetricas.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token revocation without per-request user queries.
+ *
+ * Revoked jtis live in a Bloom filter, so the common case (token not revoked) is answered in
+ * memory; only a filter hit is confirmed against revoked_tokens. Per-user cutoffs (password
+ * change, disable, role or email change) reject every token issued before the cutoff. Local
+ * revocations apply on commit; revocations made by other instances are picked up by the
+ * periodic refresh, i.e. within security.revocation.refresh-ms.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Rows committed slightly out of order by other instances are still seen by the next refresh
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(30);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt_expiration:86400000}")
+    private long jwtExpirationMs;
+
+    @Value("${security.revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter revokedJtis;
+    private volatile Map<UUID, Long> userCutoffs = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastRefresh;
+
+    // Confirmed revoked jtis, so replaying a revoked token does not query the table every time
+    private final Cache<String, Boolean> confirmedRevoked = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterWrite(Duration.ofMinutes(10))
+        .build();
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    /**
+     * @param jti      token id, null for tokens issued before jti existed
+     * @param userId   owner of the token
+     * @param issuedAt iat claim
+     */
+    public boolean isRevoked(String jti, UUID userId, Date issuedAt) {
+        if (userId != null && issuedAt != null) {
+            Long cutoff = userCutoffs.get(userId);
+            if (cutoff != null && issuedAt.getTime() < cutoff) {
+                return true;
+            }
+        }
+        if (jti == null || !revokedJtis.mightContain(jti)) {
+            return false;
+        }
+        if (confirmedRevoked.getIfPresent(jti) != null) {
+            return true;
+        }
+        // Posible falso positivo del filtro: se confirma en la tabla
+        boolean revoked = revokedTokenRepository.existsByJti(jti);
+        if (revoked) {
+            confirmedRevoked.put(jti, Boolean.TRUE);
+        }
+        return revoked;
+    }
+
+    // Logout: revoke a single token until it would have expired anyway
+    @Transactional
+    public void revokeToken(String jti, UUID userId, Date expiresAt, String reason) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setJti(jti);
+        revokedToken.setUserId(userId);
+        revokedToken.setRevokedAt(LocalDateTime.now());
+        revokedToken.setExpiresAt(expiresAt != null
+            ? LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())
+            : LocalDateTime.now().plus(Duration.ofMillis(jwtExpirationMs)));
+        revokedToken.setReason(reason);
+        revokedTokenRepository.save(revokedToken);
+        applyAfterCommit(revokedToken);
+    }
+
+    // Every token of the user issued before now stops working (password change, disable, role change),
+    // refresh tokens included
+    @Transactional
+    public void revokeAllForUser(UUID userId, String reason) {
+        if (userId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        RevokedToken cutoff = new RevokedToken();
+        cutoff.setUserId(userId);
+        cutoff.setRevokedAt(now);
+        // After the longest token lifetime nothing issued before the cutoff is still valid
+        cutoff.setExpiresAt(now.plus(Duration.ofMillis(jwtExpirationMs)));
+        cutoff.setReason(reason);
+        revokedTokenRepository.save(cutoff);
+        refreshTokenRepository.revokeAllForUser(userId, now);
+        applyAfterCommit(cutoff);
+    }
+
+    @Scheduled(
+        fixedDelayString = "${security.revocation.refresh-ms:5000}",
+        initialDelayString = "${security.revocation.refresh-ms:5000}"
+    )
+    public void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<RevokedToken> rows = revokedTokenRepository.findByRevokedAtAfter(lastRefresh.minus(REFRESH_OVERLAP));
+        rows.forEach(this::apply);
+        lastRefresh = startedAt;
+    }
+
+    // Drop rows whose tokens have all expired and rebuild the filter without them
+    @Scheduled(cron = "${security.revocation.purge-cron:0 15 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        rebuild();
+        logger.info("Purged {} expired token revocations", deleted);
+    }
+
+    private void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        Map<UUID, Long> cutoffs = new ConcurrentHashMap<>();
+        for (RevokedToken row : revokedTokenRepository.findByExpiresAtAfter(startedAt)) {
+            apply(row, filter, cutoffs);
+        }
+        revokedJtis = filter;
+        userCutoffs = cutoffs;
+        lastRefresh = startedAt;
+    }
+
+    private void apply(RevokedToken row) {
+        apply(row, revokedJtis, userCutoffs);
+    }
+
+    private void apply(RevokedToken row, BloomFilter filter, Map<UUID, Long> cutoffs) {
+        if (row.getJti() != null) {
+            filter.put(row.getJti());
+        } else if (row.getUserId() != null) {
+            // iat has second precision: a token issued in the same second after the cutoff stays valid
+            long cutoffMillis = row.getRevokedAt().atZone(ZoneId.systemDefault()).toEpochSecond() * 1000;
+            cutoffs.merge(row.getUserId(), cutoffMillis, Math::max);
+        }
+    }
+
+    private void applyAfterCommit(RevokedToken row) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(row);
+                }
+            });
+        } else {
+            apply(row);
+        }
+    }
+}
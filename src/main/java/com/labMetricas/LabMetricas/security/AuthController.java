@@ -1,17 +1,26 @@
 package com.labMetricas.LabMetricas.security;
 
 import com.labMetricas.LabMetricas.enums.TypeResponse;
+import com.labMetricas.LabMetricas.refreshToken.service.RefreshTokenService;
+import com.labMetricas.LabMetricas.revokedToken.service.TokenRevocationService;
 import com.labMetricas.LabMetricas.security.dto.AuthRequest;
 import com.labMetricas.LabMetricas.security.dto.PasswordResetRequest;
 import com.labMetricas.LabMetricas.security.dto.PasswordResetConfirmRequest;
+import com.labMetricas.LabMetricas.security.dto.RefreshTokenRequest;
 import com.labMetricas.LabMetricas.user.dto.UserDetailsDto;
 import com.labMetricas.LabMetricas.user.model.User;
 import com.labMetricas.LabMetricas.user.service.UserService;
 import com.labMetricas.LabMetricas.util.ResponseObject;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,12 +30,16 @@ import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -41,18 +54,59 @@ public class AuthController {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    @Qualifier("loginExecutor")
+    private Executor loginExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Autowired
     private PasswordResetService passwordResetService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
     @GetMapping("/test")
     public ResponseEntity<String> test() {
         return ResponseEntity.ok("El endpoint de prueba funciona correctamente");
     }
 
+    /**
+     * Runs the password check on the bounded login pool and frees the request thread meanwhile.
+     * Latency is recorded as security.login.duration, tagged by outcome.
+     */
     @PostMapping("/login")
-    public ResponseEntity<ResponseObject> login(@Valid @RequestBody AuthRequest request) {
+    public CompletableFuture<ResponseEntity<ResponseObject>> login(@Valid @RequestBody AuthRequest request,
+                                                                   HttpServletRequest httpRequest) {
+        long retryAfter = authRateLimiter.checkLogin(httpRequest, request.getEmail());
+        if (retryAfter > 0) {
+            logger.warn("Login limitado para el usuario: {} desde {}", request.getEmail(), httpRequest.getRemoteAddr());
+            return CompletableFuture.completedFuture(tooManyRequests(retryAfter,
+                "Demasiados intentos de inicio de sesión. Por favor, intenta de nuevo más tarde."));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(request), loginExecutor)
+                .whenComplete((response, error) -> sample.stop(loginTimer(
+                    response != null ? loginOutcome(response.getStatusCode().value()) : "error")));
+        } catch (RejectedExecutionException e) {
+            sample.stop(loginTimer("rejected"));
+            logger.warn("Login rechazado por saturación del pool para el usuario: {}", request.getEmail());
+            return CompletableFuture.completedFuture(ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ResponseObject("Demasiados inicios de sesión simultáneos. Por favor, intenta de nuevo en unos segundos.", TypeResponse.ERROR)));
+        }
+    }
+
+    private ResponseEntity<ResponseObject> authenticate(AuthRequest request) {
         try {
             logger.debug("Intento de login para el usuario: {}", request.getEmail());
             
@@ -63,8 +117,8 @@ public class AuthController {
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             String jwt = jwtUtils.generateJwtToken(userDetails);
 
-            // Fetch full user details
-            User user = (User) userDetailsService.loadUserByUsername(request.getEmail());
+            // The authenticated principal is the user entity already loaded by the provider
+            User user = (User) userDetails;
             UserDetailsDto userInfo = new UserDetailsDto(user);
 
             logger.debug("Token generado exitosamente para el usuario: {}", request.getEmail());
@@ -72,6 +126,7 @@ public class AuthController {
             Map<String, Object> data = new HashMap<>();
             data.put("token", jwt);
             data.put("type", "Bearer");
+            data.put("refreshToken", refreshTokenService.issue(user));
             data.put("user", userInfo);
             data.put("roles", userDetails.getAuthorities());
 
@@ -104,8 +159,83 @@ public class AuthController {
         }
     }
 
+    private static ResponseEntity<ResponseObject> tooManyRequests(long retryAfterSeconds, String message) {
+        return ResponseEntity
+            .status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(new ResponseObject(message, TypeResponse.ERROR));
+    }
+
+    private Timer loginTimer(String outcome) {
+        return Timer.builder("security.login.duration")
+            .description("Login latency including the wait for the login pool")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static String loginOutcome(int status) {
+        if (status == 200) {
+            return "success";
+        }
+        return status >= 500 ? "error" : "failure";
+    }
+
+    // New access token from a refresh token; the presented refresh token is rotated
+    @PostMapping("/refresh")
+    public ResponseEntity<ResponseObject> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            RefreshTokenService.IssuedToken issued = refreshTokenService.rotate(request.getRefreshToken());
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("token", jwtUtils.generateJwtToken(issued.getUser()));
+            data.put("type", "Bearer");
+            data.put("refreshToken", issued.getToken());
+
+            return ResponseEntity.ok(new ResponseObject("Token renovado", data, TypeResponse.SUCCESS));
+        } catch (BadCredentialsException e) {
+            logger.warn("Refresh token rechazado: {}", e.getMessage());
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(new ResponseObject("La sesión ha expirado. Por favor, inicia sesión de nuevo.", TypeResponse.ERROR));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ResponseObject> logout(HttpServletRequest request,
+                                                 @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
+        // Claims already verified by the JWT filter for this request
+        Claims claims = jwtUtils.getClaims(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (claims == null || authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(new ResponseObject("No hay una sesión activa", null, TypeResponse.ERROR));
+        }
+
+        if (claims.getId() != null) {
+            tokenRevocationService.revokeToken(claims.getId(), principal.getId(), claims.getExpiration(), "LOGOUT");
+        } else {
+            // Token anterior al claim jti: solo se puede revocar con un corte por usuario
+            tokenRevocationService.revokeAllForUser(principal.getId(), "LOGOUT");
+        }
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            refreshTokenService.revokeFamily(refreshRequest.getRefreshToken());
+        }
+        SecurityContextHolder.clearContext();
+
+        logger.debug("Sesión cerrada para el usuario: {}", principal.getUsername());
+        return ResponseEntity.ok(new ResponseObject("Sesión cerrada correctamente", null, TypeResponse.SUCCESS));
+    }
+
     @PostMapping("/forgot-password")
-    public ResponseEntity<ResponseObject> forgotPassword(@Valid @RequestBody PasswordResetRequest request) {
+    public ResponseEntity<ResponseObject> forgotPassword(@Valid @RequestBody PasswordResetRequest request,
+                                                         HttpServletRequest httpRequest) {
+        long retryAfter = authRateLimiter.checkPasswordReset(httpRequest, request.getEmail());
+        if (retryAfter > 0) {
+            logger.warn("Password reset rate limited for {} from {}", request.getEmail(), httpRequest.getRemoteAddr());
+            return tooManyRequests(retryAfter, "Too many password reset requests. Please try again later.");
+        }
+
         try {
             boolean result = passwordResetService.initiatePasswordReset(request.getEmail());
             
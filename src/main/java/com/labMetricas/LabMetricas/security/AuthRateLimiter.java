@@ -0,0 +1,91 @@
+package com.labMetricas.LabMetricas.security;
+
+import com.labMetricas.LabMetricas.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Rate limits for the unauthenticated endpoints that cost CPU (BCrypt on login) or email quota
+ * (password reset). Each is limited per client IP and per email, checked before any work is
+ * done. Outcomes are counted in security.ratelimit.requests, tagged by endpoint, key and outcome.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final Limit loginByIp;
+    private final Limit loginByEmail;
+    private final Limit resetByIp;
+    private final Limit resetByEmail;
+
+    public AuthRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${security.rate-limit.stripes:16384}") int stripes,
+            @Value("${security.rate-limit.login.ip.capacity:20}") int loginIpCapacity,
+            @Value("${security.rate-limit.login.ip.period-seconds:60}") long loginIpPeriod,
+            @Value("${security.rate-limit.login.email.capacity:10}") int loginEmailCapacity,
+            @Value("${security.rate-limit.login.email.period-seconds:300}") long loginEmailPeriod,
+            @Value("${security.rate-limit.password-reset.ip.capacity:10}") int resetIpCapacity,
+            @Value("${security.rate-limit.password-reset.ip.period-seconds:3600}") long resetIpPeriod,
+            @Value("${security.rate-limit.password-reset.email.capacity:3}") int resetEmailCapacity,
+            @Value("${security.rate-limit.password-reset.email.period-seconds:3600}") long resetEmailPeriod) {
+        this.loginByIp = new Limit(meterRegistry, "login", "ip", loginIpCapacity, loginIpPeriod, stripes);
+        this.loginByEmail = new Limit(meterRegistry, "login", "email", loginEmailCapacity, loginEmailPeriod, stripes);
+        this.resetByIp = new Limit(meterRegistry, "password-reset", "ip", resetIpCapacity, resetIpPeriod, stripes);
+        this.resetByEmail = new Limit(meterRegistry, "password-reset", "email", resetEmailCapacity, resetEmailPeriod, stripes);
+    }
+
+    /**
+     * @return 0 if the login attempt may proceed, otherwise the seconds to send in Retry-After
+     */
+    public long checkLogin(HttpServletRequest request, String email) {
+        return check(loginByIp, loginByEmail, request, email);
+    }
+
+    /**
+     * @return 0 if the reset request may proceed, otherwise the seconds to send in Retry-After
+     */
+    public long checkPasswordReset(HttpServletRequest request, String email) {
+        return check(resetByIp, resetByEmail, request, email);
+    }
+
+    private long check(Limit byIp, Limit byEmail, HttpServletRequest request, String email) {
+        long waitMillis = byIp.acquire(request.getRemoteAddr());
+        if (waitMillis == 0 && email != null && !email.isBlank()) {
+            waitMillis = byEmail.acquire(email.trim().toLowerCase(Locale.ROOT));
+        }
+        // Retry-After va en segundos enteros, nunca 0 si se rechaza
+        return waitMillis == 0 ? 0 : Math.max(1, (waitMillis + 999) / 1000);
+    }
+
+    private static final class Limit {
+        private final TokenBucketRateLimiter limiter;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        Limit(MeterRegistry meterRegistry, String endpoint, String key, int capacity, long periodSeconds, int stripes) {
+            this.limiter = new TokenBucketRateLimiter(capacity, periodSeconds * 1000, stripes);
+            this.allowed = counter(meterRegistry, endpoint, key, "allowed");
+            this.rejected = counter(meterRegistry, endpoint, key, "rejected");
+        }
+
+        long acquire(String key) {
+            long waitMillis = limiter.tryAcquire(key);
+            (waitMillis == 0 ? allowed : rejected).increment();
+            return waitMillis;
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String endpoint, String key, String outcome) {
+            return Counter.builder("security.ratelimit.requests")
+                .description("Rate limit decisions for unauthenticated auth endpoints")
+                .tag("endpoint", endpoint)
+                .tag("key", key)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.labMetricas.LabMetricas.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts token verifications and principal lookups, in total and per request. With a single
+ * authentication stage both per-request summaries should stay at 1; a max above 1 means some
+ * code path started verifying tokens or loading users again.
+ *
+ * Meters: security.jwt.verifications, security.auth.user.lookups (counters) and
+ * security.jwt.verifications.per.request, security.auth.user.lookups.per.request (summaries).
+ */
+@Component
+public class AuthenticationMetrics {
+
+    // [verificaciones, búsquedas de usuario] de la petición en curso
+    private static final ThreadLocal<int[]> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private final Counter tokenVerifications;
+    private final Counter userLookups;
+    private final DistributionSummary verificationsPerRequest;
+    private final DistributionSummary userLookupsPerRequest;
+
+    public AuthenticationMetrics(MeterRegistry meterRegistry) {
+        this.tokenVerifications = Counter.builder("security.jwt.verifications")
+            .description("JWT signature verifications")
+            .register(meterRegistry);
+        this.userLookups = Counter.builder("security.auth.user.lookups")
+            .description("Principal lookups for authenticated requests")
+            .register(meterRegistry);
+        this.verificationsPerRequest = DistributionSummary.builder("security.jwt.verifications.per.request")
+            .description("JWT verifications in one request carrying a token")
+            .register(meterRegistry);
+        this.userLookupsPerRequest = DistributionSummary.builder("security.auth.user.lookups.per.request")
+            .description("Principal lookups in one request carrying a token")
+            .register(meterRegistry);
+    }
+
+    public void startRequest() {
+        CURRENT_REQUEST.set(new int[2]);
+    }
+
+    public void tokenVerified() {
+        tokenVerifications.increment();
+        int[] current = CURRENT_REQUEST.get();
+        if (current != null) {
+            current[0]++;
+        }
+    }
+
+    public void userLookedUp() {
+        userLookups.increment();
+        int[] current = CURRENT_REQUEST.get();
+        if (current != null) {
+            current[1]++;
+        }
+    }
+
+    // Requests without a token (login, public endpoints) are not recorded
+    public void endRequest() {
+        int[] current = CURRENT_REQUEST.get();
+        CURRENT_REQUEST.remove();
+        if (current != null && (current[0] > 0 || current[1] > 0)) {
+            verificationsPerRequest.record(current[0]);
+            userLookupsPerRequest.record(current[1]);
+        }
+    }
+}
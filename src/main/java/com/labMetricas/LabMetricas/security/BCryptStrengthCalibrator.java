@@ -0,0 +1,33 @@
+package com.labMetricas.LabMetricas.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt work factor for this machine: the highest strength whose hash time stays
+ * within the target latency, clamped to [minStrength, maxStrength]. Each strength step doubles
+ * the cost, so one timed hash at the minimum is enough to extrapolate.
+ */
+public final class BCryptStrengthCalibrator {
+    private static final Logger logger = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-Sample#2024";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        // Primera ejecución para calentar el JIT; la segunda es la que se mide
+        encoder.encode(SAMPLE_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        double elapsedMillis = Math.max(1.0, (System.nanoTime() - start) / 1_000_000.0);
+
+        int extraSteps = (int) Math.floor(Math.log(targetMillis / elapsedMillis) / Math.log(2));
+        int strength = Math.max(minStrength, Math.min(maxStrength, minStrength + extraSteps));
+        logger.info("BCrypt strength {} selected (strength {} took {} ms, target {} ms)",
+            strength, minStrength, Math.round(elapsedMillis), targetMillis);
+        return strength;
+    }
+}
@@ -1,8 +1,10 @@
 package com.labMetricas.LabMetricas.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labMetricas.LabMetricas.revokedToken.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,8 +13,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,6 +20,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -28,50 +29,93 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserPrincipalCache userPrincipalCache;
 
+    @Autowired
+    private AuthenticationMetrics authenticationMetrics;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    /**
+     * The only JWT authentication stage. It runs inside the security filter chain; servlet
+     * auto-registration is disabled in SecurityConfig so it does not run a second time.
+     */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        // Everything the rest of the request does is counted, so a second verification shows up
+        authenticationMetrics.startRequest();
         try {
-            String jwt = jwtUtils.parseJwt(request);
-            if (jwt != null) {
-                try {
-                    Jwts.parserBuilder()
-                            .setSigningKey(jwtUtils.getSigningKey())
-                            .build()
-                            .parseClaimsJws(jwt);
-                }  catch (ExpiredJwtException e) {
-                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-
-                    final Map<String,Object> body = new HashMap<>();
-                    body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
-                    body.put("error", "Unauthorized");
-                    body.put("message", e.getMessage());
-                    body.put("path", request.getServletPath());
-
-                    final ObjectMapper mapper = new ObjectMapper();
-                    mapper.writeValue(response.getOutputStream(), body);
-
-                    return;
-                } catch (Exception e) {
-                    logger.error("JWT validation error: {}", e);
-                }
+            authenticate(request, response, filterChain);
+        } finally {
+            authenticationMetrics.endRequest();
+        }
+    }
+
+    // The chain runs exactly once, after this block; a token that cannot be used only leaves the
+    // request unauthenticated, and Spring Security then decides
+    private void authenticate(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Claims claims = null;
+        String jwt = jwtUtils.parseJwt(request);
+        if (jwt != null) {
+            // Single signature check per request, with the shared parser
+            try {
+                claims = jwtUtils.parseClaims(jwt);
+            }  catch (ExpiredJwtException e) {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
 
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                final Map<String,Object> body = new HashMap<>();
+                body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
+                body.put("error", "Unauthorized");
+                body.put("message", e.getMessage());
+                body.put("path", request.getServletPath());
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                final ObjectMapper mapper = new ObjectMapper();
+                mapper.writeValue(response.getOutputStream(), body);
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                return;
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.error("JWT validation error: " + e.getMessage());
             }
-        } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e);
+        }
+
+        UserPrincipal userDetails = null;
+        boolean revoked = false;
+        if (claims != null) {
+            try {
+                UUID tokenUserId = jwtUtils.getUserId(claims);
+                if (tokenUserId != null && claims.containsKey(JwtUtils.CLAIM_ROLES)) {
+                    // Stateless: identity and roles come from the signed claims, no user lookup
+                    userDetails = new UserPrincipal(tokenUserId, claims.getSubject(), jwtUtils.getAuthorities(claims), true);
+                } else {
+                    // Tokens issued before the uid/roles claims: principal from the cache
+                    userDetails = userPrincipalCache.getPrincipal(claims.getSubject());
+                }
+
+                // Logout, password change, disable or role change since the token was issued
+                revoked = tokenRevocationService.isRevoked(claims.getId(), userDetails.getId(), claims.getIssuedAt());
+            } catch (Exception e) {
+                logger.error("Cannot set user authentication: {}", e);
+                userDetails = null;
+            }
+        }
+
+        if (revoked) {
+            logger.warn("Revoked JWT used for " + claims.getSubject());
+        } else if (userDetails != null) {
+            // Downstream code reads uid/roles from here instead of parsing the token again
+            request.setAttribute(JwtUtils.CLAIMS_ATTRIBUTE, claims);
+
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+}
@@ -1,62 +1,120 @@
 package com.labMetricas.LabMetricas.security;
 
+import com.labMetricas.LabMetricas.user.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
-import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Claims added at login so downstream code does not need to look the user up again
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+
+    // Request attribute holding the Claims parsed by the JWT filter
+    public static final String CLAIMS_ATTRIBUTE = JwtUtils.class.getName() + ".CLAIMS";
+
     @Value("${jwt_secret:labMetricasSecretKey12345678901234567890}")
     private String jwtSecret;
 
     @Value("${jwt_expiration:86400000}")
     private int jwtExpirationMs;
 
+    @Autowired
+    private AuthenticationMetrics authenticationMetrics;
+
     private Key key;
 
+    // Immutable and thread-safe: built once, shared by every request
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+    }
+
     public Key getSigningKey() {
-        if (key == null) {
-            key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        }
         return key;
     }
 
     public String generateJwtToken(UserDetails userDetails) {
-        return Jwts.builder()
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
+                .claim(CLAIM_ROLES, roles);
+        if (userDetails instanceof User user) {
+            builder.claim(CLAIM_USER_ID, user.getId().toString());
+        } else if (userDetails instanceof UserPrincipal principal) {
+            builder.claim(CLAIM_USER_ID, principal.getId().toString());
+        }
+        return builder
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry once and returns the claims. Throws ExpiredJwtException
+     * or another JwtException when the token is not valid.
+     */
+    public Claims parseClaims(String token) {
+        authenticationMetrics.tokenVerified();
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
+    }
+
+    // Null for tokens issued before the uid claim existed
+    public UUID getUserId(Claims claims) {
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        return userId != null ? UUID.fromString(userId) : null;
+    }
+
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        Collection<?> roles = claims.get(CLAIM_ROLES, Collection.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+    }
+
+    // Claims parsed by the JWT filter for the current request, or null if it was not authenticated
+    public Claims getClaims(HttpServletRequest request) {
+        return (Claims) request.getAttribute(CLAIMS_ATTRIBUTE);
     }
 
     public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
+            parseClaims(authToken);
             return true;
         } catch (Exception e) {
             logger.error("JWT validation error: {}", e.getMessage());
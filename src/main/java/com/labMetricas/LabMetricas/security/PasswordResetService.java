@@ -4,6 +4,8 @@ import com.labMetricas.LabMetricas.passwordResetToken.model.PasswordResetToken;
 import com.labMetricas.LabMetricas.passwordResetToken.repository.PasswordResetTokenRepository;
 import com.labMetricas.LabMetricas.user.repository.UserRepository;
 import com.labMetricas.LabMetricas.config.EmailService;
+import com.labMetricas.LabMetricas.revokedToken.service.TokenRevocationService;
+import com.labMetricas.LabMetricas.util.TokenHasher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +35,12 @@ public class PasswordResetService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Value("${frontend.url}")
     private String frontendUrl;
 
@@ -66,7 +74,7 @@ public class PasswordResetService {
             // Generate new token
             String token = UUID.randomUUID().toString();
             PasswordResetToken resetToken = new PasswordResetToken();
-            resetToken.setToken(token);
+            resetToken.setTokenHash(TokenHasher.sha256Hex(token));
             resetToken.setUser(user);
             resetToken.setExpiryDate(LocalDateTime.now().plusHours(1));
             resetToken.setUsed(false);
@@ -96,48 +104,39 @@ public class PasswordResetService {
 
     @Transactional
     public boolean resetPassword(String token, String newPassword) {
-        Optional<PasswordResetToken> resetTokenOptional = 
-            passwordResetTokenRepository.findByTokenAndUsedFalseAndExpiryDateAfter(
-                token, LocalDateTime.now()
-            );
+        Optional<PasswordResetToken> resetTokenOptional =
+            passwordResetTokenRepository.findByTokenHashWithUser(TokenHasher.sha256Hex(token));
 
-        if (resetTokenOptional.isEmpty()) {
-            logger.warn("Invalid or expired reset token: {}", token);
+        // Consume the token first: of two concurrent resets with the same token only one passes
+        if (resetTokenOptional.isEmpty()
+                || passwordResetTokenRepository.markUsed(resetTokenOptional.get().getId(), LocalDateTime.now()) == 0) {
+            logger.warn("Invalid or expired reset token");
             return false;
         }
 
-        PasswordResetToken resetToken = resetTokenOptional.get();
-        User user = resetToken.getUser();
+        User user = resetTokenOptional.get().getUser();
 
         // Encode the new password
         String encodedPassword = passwordEncoder.encode(newPassword);
         user.setPassword(encodedPassword);
         userRepository.save(user);
-
-        // Mark token as used
-        resetToken.setUsed(true);
-        passwordResetTokenRepository.save(resetToken);
+        userPrincipalCache.invalidate(user.getEmail());
+        tokenRevocationService.revokeAllForUser(user.getId(), "PASSWORD_RESET");
 
         logger.info("Password successfully reset for user: {}", user.getEmail());
         return true;
     }
 
     public boolean validateResetToken(String token) {
-        Optional<PasswordResetToken> resetTokenOptional = 
-            passwordResetTokenRepository.findByTokenAndUsedFalseAndExpiryDateAfter(
-                token, LocalDateTime.now()
-            );
-
-        return resetTokenOptional.isPresent();
+        return passwordResetTokenRepository.existsByTokenHashAndUsedFalseAndExpiryDateAfter(
+            TokenHasher.sha256Hex(token), LocalDateTime.now());
     }
 
     public void sendPasswordResetConfirmationEmail(String token) {
         try {
-            // Find the user associated with this token
-            Optional<PasswordResetToken> resetTokenOptional = 
-                passwordResetTokenRepository.findByTokenAndUsedFalseAndExpiryDateAfter(
-                    token, LocalDateTime.now()
-                );
+            // Find the user associated with this token (already marked used by resetPassword)
+            Optional<PasswordResetToken> resetTokenOptional =
+                passwordResetTokenRepository.findByTokenHashWithUser(TokenHasher.sha256Hex(token));
 
             if (resetTokenOptional.isPresent()) {
                 User user = resetTokenOptional.get().getUser();
@@ -0,0 +1,161 @@
+package com.labMetricas.LabMetricas.security;
+
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * URL authorization rules compiled into a path-segment trie at startup. A request walks the trie
+ * once, so the cost depends on the depth of its path, not on how many rules exist. Rules keep
+ * the requestMatchers semantics: patterns are literal paths or end in "/**", and when several
+ * rules match, the one declared first wins.
+ */
+public final class RouteAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationManager<RequestAuthorizationContext> PERMIT_ALL = (authentication, context) -> GRANTED;
+
+    private final Node root;
+    private final List<AuthorizationManager<RequestAuthorizationContext>> managers;
+    private final AuthorizationManager<RequestAuthorizationContext> anyRequest;
+
+    private RouteAuthorizationManager(Node root, List<AuthorizationManager<RequestAuthorizationContext>> managers,
+                                      AuthorizationManager<RequestAuthorizationContext> anyRequest) {
+        this.root = root;
+        this.managers = managers;
+        this.anyRequest = anyRequest;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        // Decoded path, as Spring MVC matches it, so encoded characters cannot skip a rule
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(context.getRequest());
+        return managerFor(path).authorize(authentication, context);
+    }
+
+    // Solo por el contrato de AuthorizationManager; Spring Security llama a authorize
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        AuthorizationResult result = authorize(authentication, context);
+        if (result == null || result instanceof AuthorizationDecision) {
+            return (AuthorizationDecision) result;
+        }
+        return new AuthorizationDecision(result.isGranted());
+    }
+
+    AuthorizationManager<RequestAuthorizationContext> managerFor(String path) {
+        int rule = match(path);
+        return rule == Node.NONE ? anyRequest : managers.get(rule);
+    }
+
+    // Lowest rule index among the "/**" prefixes on the way down and the exact rule at the end
+    private int match(String path) {
+        Node node = root;
+        int best = root.subtreeRule;
+        int start = path.startsWith("/") ? 1 : 0;
+        while (node != null) {
+            if (start > path.length()) {
+                return Math.min(best, node.exactRule);
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            node = node.children.get(path.substring(start, end));
+            if (node != null) {
+                best = Math.min(best, node.subtreeRule);
+            }
+            start = end + 1;
+        }
+        return best;
+    }
+
+    public static final class Builder {
+        private final Node root = new Node();
+        private final List<AuthorizationManager<RequestAuthorizationContext>> managers = new ArrayList<>();
+        private AuthorizationManager<RequestAuthorizationContext> anyRequest = AuthenticatedAuthorizationManager.authenticated();
+
+        private Builder() {
+        }
+
+        public Builder permitAll(String... patterns) {
+            return add(PERMIT_ALL, patterns);
+        }
+
+        public Builder hasAnyAuthority(String pattern, String... authorities) {
+            return add(AuthorityAuthorizationManager.hasAnyAuthority(authorities), pattern);
+        }
+
+        public Builder hasAnyAuthority(String[] patterns, String... authorities) {
+            return add(AuthorityAuthorizationManager.hasAnyAuthority(authorities), patterns);
+        }
+
+        // Requests no rule matches; authenticated() by default
+        public Builder anyRequest(AuthorizationManager<RequestAuthorizationContext> manager) {
+            this.anyRequest = manager;
+            return this;
+        }
+
+        public RouteAuthorizationManager build() {
+            return new RouteAuthorizationManager(root, List.copyOf(managers), anyRequest);
+        }
+
+        private Builder add(AuthorizationManager<RequestAuthorizationContext> manager, String... patterns) {
+            int rule = managers.size();
+            managers.add(manager);
+            for (String pattern : patterns) {
+                insert(pattern, rule);
+            }
+            return this;
+        }
+
+        private void insert(String pattern, int rule) {
+            if (!pattern.startsWith("/")) {
+                throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+            }
+            boolean subtree = pattern.endsWith("/**");
+            String literal = subtree ? pattern.substring(0, pattern.length() - 3) : pattern;
+            if (literal.contains("*") || literal.contains("{")) {
+                throw new IllegalArgumentException("Only literal paths and trailing /** are supported: " + pattern);
+            }
+
+            Node node = root;
+            if (!literal.isEmpty()) {
+                for (String segment : literal.substring(1).split("/", -1)) {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            // Como en requestMatchers, la primera regla declarada tiene prioridad
+            if (subtree) {
+                node.subtreeRule = Math.min(node.subtreeRule, rule);
+            } else {
+                node.exactRule = Math.min(node.exactRule, rule);
+            }
+        }
+    }
+
+    private static final class Node {
+        static final int NONE = Integer.MAX_VALUE;
+
+        final Map<String, Node> children = new HashMap<>();
+        // "/a/**" matches "/a" and everything below it; "/a" only matches itself
+        int subtreeRule = NONE;
+        int exactRule = NONE;
+    }
+}
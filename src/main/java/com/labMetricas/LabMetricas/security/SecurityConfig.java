@@ -3,6 +3,8 @@ package com.labMetricas.LabMetricas.security;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,8 +14,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,7 +25,9 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -31,7 +35,20 @@ import java.util.List;
 public class SecurityConfig {
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserDetailsServiceImpl userDetailsService;
+
+    // Fixed BCrypt strength; 0 means calibrate at startup to the target latency
+    @Value("${security.password.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${security.password.bcrypt.target-ms:250}")
+    private long bcryptTargetMillis;
+
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${security.password.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthFilter;
@@ -41,11 +58,22 @@ public class SecurityConfig {
 
     private final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
 
+    // The JWT filter is a bean only so it can be injected here; keep Boot from also
+    // registering it as a plain servlet filter, which would authenticate every request twice
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Outdated hashes (no {bcrypt} prefix or lower strength) are re-encoded after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -56,7 +84,16 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength > 0
+            ? bcryptStrength
+            : BCryptStrengthCalibrator.calibrate(bcryptTargetMillis, bcryptMinStrength, bcryptMaxStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", encoders);
+        // Hashes stored before the {id} prefix are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
     @Bean
@@ -69,37 +106,9 @@ public class SecurityConfig {
             .and()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             .and()
+            // Reglas compiladas en un trie: una sola pasada por petición (ver routeAuthorizationManager)
             .authorizeHttpRequests(auth -> auth
-                // Endpoints públicos
-                .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/api/public/**").permitAll()
-                .requestMatchers("/api/health").permitAll()
-                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
-                .requestMatchers("/api/auth/forgot-password", "/api/auth/reset-password").permitAll()
-                
-                // User endpoints for all authenticated users (ADMIN, SUPERVISOR, OPERADOR)
-                .requestMatchers("/api/users/**").hasAnyAuthority("ADMIN", "SUPERVISOR", "OPERADOR")
-                
-                // Customer endpoints for ADMIN, SUPERVISOR, and OPERADOR
-                .requestMatchers("/api/customers/**").hasAnyAuthority("ADMIN", "SUPERVISOR", "OPERADOR")
-                
-                // Admin-only user management endpoints
-                .requestMatchers("/api/admin/users/**").hasAuthority("ADMIN")
-                
-                // Endpoints específicos para SUPERVISOR
-                .requestMatchers("/api/supervisor/**").hasAnyAuthority("ADMIN", "SUPERVISOR")
-                
-                // Endpoints específicos para OPERADOR
-                .requestMatchers("/api/operador/**").hasAnyAuthority("ADMIN", "SUPERVISOR", "OPERADOR")
-                
-                // Maintenance endpoints for SUPERVISOR and ADMIN
-                .requestMatchers("/api/maintenance/init-data").hasAnyAuthority("ADMIN", "SUPERVISOR", "OPERADOR")
-                .requestMatchers("/api/maintenance/create").hasAnyAuthority("ADMIN", "SUPERVISOR", "OPERADOR")
-                .requestMatchers("/api/maintenance/update-status/**").hasAnyAuthority("ADMIN", "SUPERVISOR")
-                .requestMatchers("/api/maintenance/list").hasAnyAuthority("ADMIN", "SUPERVISOR")
-                
-                // Cualquier otra solicitud requiere autenticación
-                .anyRequest().authenticated()
+                .anyRequest().access(routeAuthorizationManager())
             );
 
         http.authenticationProvider(authenticationProvider());
@@ -108,6 +117,38 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * URL authorization rules, in priority order: the first matching rule decides. Anything not
+     * listed requires authentication.
+     */
+    @Bean
+    public RouteAuthorizationManager routeAuthorizationManager() {
+        String[] allRoles = {"ADMIN", "SUPERVISOR", "OPERADOR"};
+        return RouteAuthorizationManager.builder()
+            // Endpoints públicos
+            .permitAll("/api/auth/**", "/api/public/**", "/api/health", "/swagger-ui/**", "/v3/api-docs/**")
+
+            // User endpoints for all authenticated users (ADMIN, SUPERVISOR, OPERADOR)
+            .hasAnyAuthority("/api/users/**", allRoles)
+
+            // Customer endpoints for ADMIN, SUPERVISOR, and OPERADOR
+            .hasAnyAuthority("/api/customers/**", allRoles)
+
+            // Admin-only user management endpoints
+            .hasAnyAuthority("/api/admin/users/**", "ADMIN")
+
+            // Endpoints específicos para SUPERVISOR
+            .hasAnyAuthority("/api/supervisor/**", "ADMIN", "SUPERVISOR")
+
+            // Endpoints específicos para OPERADOR
+            .hasAnyAuthority("/api/operador/**", allRoles)
+
+            // Maintenance endpoints for SUPERVISOR and ADMIN
+            .hasAnyAuthority(new String[]{"/api/maintenance/init-data", "/api/maintenance/create"}, allRoles)
+            .hasAnyAuthority(new String[]{"/api/maintenance/update-status/**", "/api/maintenance/list"}, "ADMIN", "SUPERVISOR")
+            .build();
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
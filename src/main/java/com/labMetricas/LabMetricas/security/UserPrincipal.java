@@ -0,0 +1,77 @@
+package com.labMetricas.LabMetricas.security;
+
+import com.labMetricas.LabMetricas.user.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a user for authenticated requests. It is safe to share between
+ * threads and to keep in the principal cache. The password hash is deliberately left out:
+ * login still loads the full entity through UserDetailsServiceImpl.
+ */
+public final class UserPrincipal implements UserDetails {
+    private static final long serialVersionUID = 1L;
+
+    private final UUID id;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+    private final boolean enabled;
+
+    public UserPrincipal(UUID id, String email, List<GrantedAuthority> authorities, boolean enabled) {
+        this.id = id;
+        this.email = email;
+        this.authorities = List.copyOf(authorities);
+        this.enabled = enabled;
+    }
+
+    public static UserPrincipal from(User user) {
+        List<GrantedAuthority> authorities = user.getRole() != null
+            ? List.of(new SimpleGrantedAuthority(user.getRole().getName()))
+            : List.of();
+        return new UserPrincipal(user.getId(), user.getEmail(), authorities, user.isEnabled());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
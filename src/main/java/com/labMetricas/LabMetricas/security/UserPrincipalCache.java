@@ -0,0 +1,78 @@
+package com.labMetricas.LabMetricas.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.labMetricas.LabMetricas.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Principals for JWT-authenticated requests, keyed by email. Bounded and TTL based, so a
+ * request with a known token needs no user query. Writes in UserService and
+ * PasswordResetService invalidate the entry. Hit/miss/eviction counters are published as
+ * the "cache.*" meters with cache=userPrincipals.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final AuthenticationMetrics authenticationMetrics;
+    private final Cache<String, UserPrincipal> cache;
+
+    @Autowired
+    public UserPrincipalCache(
+        UserRepository userRepository,
+        AuthenticationMetrics authenticationMetrics,
+        MeterRegistry meterRegistry,
+        @Value("${security.principal-cache.max-size:10000}") long maxSize,
+        @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.authenticationMetrics = authenticationMetrics;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userPrincipals");
+    }
+
+    public UserPrincipal getPrincipal(String email) {
+        authenticationMetrics.userLookedUp();
+        // Una sola consulta (usuario + rol) en caso de fallo; los usuarios inexistentes no se cachean
+        UserPrincipal principal = cache.get(email, key -> userRepository.findByEmailWithRole(key)
+            .map(UserPrincipal::from)
+            .orElse(null));
+        if (principal == null) {
+            throw new UsernameNotFoundException("Usuario no encontrado con el email: " + email);
+        }
+        return principal;
+    }
+
+    /**
+     * Drop the entry. Inside a transaction it is dropped again after commit, so a request that
+     * reloaded the user before the commit cannot keep the old role or status.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        cache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.labMetricas.LabMetricas.sentEmail.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the Resend API, for trying the email outbox without sending real mail.
+ * Enabled with email.fake-resend.enabled=true; point resend.api.url at
+ * http://localhost:{port}/api/public/fake-resend.
+ *
+ * Answers POST /emails like Resend, returning the same id for a repeated Idempotency-Key.
+ * email.fake-resend.failure-rate makes that share of calls fail with 503 and
+ * email.fake-resend.latency-ms delays every call. GET /emails lists the last emails received.
+ */
+@RestController
+@RequestMapping("/api/public/fake-resend")
+@ConditionalOnProperty(name = "email.fake-resend.enabled", havingValue = "true")
+public class FakeResendController {
+    private static final Logger logger = LoggerFactory.getLogger(FakeResendController.class);
+    private static final int MAX_KEPT = 200;
+
+    private final Map<String, String> idsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Map<String, Object>> received = new ConcurrentLinkedDeque<>();
+
+    @Value("${email.fake-resend.failure-rate:0}")
+    private double failureRate;
+
+    @Value("${email.fake-resend.latency-ms:0}")
+    private long latencyMs;
+
+    @PostMapping("/emails")
+    public ResponseEntity<Map<String, Object>> send(
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+        @RequestBody Map<String, Object> email
+    ) throws InterruptedException {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("name", "internal_server_error", "message", "Simulated failure"));
+        }
+
+        String id = idempotencyKey != null
+            ? idsByKey.computeIfAbsent(idempotencyKey, key -> record(email))
+            : record(email);
+        return ResponseEntity.ok(Map.of("id", id));
+    }
+
+    @GetMapping("/emails")
+    public List<Map<String, Object>> list() {
+        return new ArrayList<>(received);
+    }
+
+    private String record(Map<String, Object> email) {
+        String id = UUID.randomUUID().toString();
+        received.addFirst(Map.of("id", id, "to", email.getOrDefault("to", List.of()), "subject", email.getOrDefault("subject", "")));
+        while (received.size() > MAX_KEPT) {
+            received.pollLast();
+        }
+        logger.info("Fake Resend accepted email {} to {}", id, email.get("to"));
+        return id;
+    }
+}
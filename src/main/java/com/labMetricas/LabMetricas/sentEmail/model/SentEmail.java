@@ -12,14 +12,26 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Outbox row for one email. Written by EmailOutboxService in the caller's transaction and
+ * delivered by EmailOutboxWorker; the body is cleared once the email is sent.
+ */
 @Entity
-@Table(name = "sent_emails")
+@Table(name = "sent_emails", indexes = {
+    // Claim query: pending rows whose next attempt is due
+    @Index(name = "idx_sent_emails_status_next_attempt", columnList = "status, next_attempt_at")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class SentEmail {
+    public enum Status { PENDING, SENDING, SENT, FAILED }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    @Column(nullable = false, length = 320)
+    private String recipient;
+
     @Column(nullable = false, length = 255)
     private String subject;
 
@@ -30,6 +42,30 @@ public class SentEmail {
     @JoinColumn(name = "user_id")
     private User user;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Pendiente: próximo intento; en envío: fin del plazo antes de que otro worker lo reclame
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // Sent as the Idempotency-Key header on every attempt, so a retry never sends twice
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "provider_message_id", length = 64)
+    private String providerMessageId;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
@@ -0,0 +1,81 @@
+package com.labMetricas.LabMetricas.sentEmail.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Transactional email outbox. enqueue only inserts a PENDING row in sent_emails, inside the
+ * caller's transaction when there is one: the email exists if and only if the business change
+ * commits, and the request never waits for the mail provider. EmailOutboxWorker sends it.
+ */
+@Service
+public class EmailOutboxService {
+    private static final int MAX_SUBJECT_LENGTH = 255;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO sent_emails (recipient, subject, body, user_id, status, attempts, next_attempt_at, idempotency_key, created_at) " +
+        "VALUES (?, ?, ?, (SELECT id FROM users WHERE email = ?), 'PENDING', 0, ?, ?, ?) " +
+        "ON CONFLICT (idempotency_key) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailOutboxWorker worker;
+    private final Counter enqueued;
+    private final Counter duplicates;
+
+    public EmailOutboxService(JdbcTemplate jdbcTemplate, EmailOutboxWorker worker, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.worker = worker;
+        this.enqueued = Counter.builder("email.outbox.enqueued").register(meterRegistry);
+        this.duplicates = Counter.builder("email.outbox.duplicates")
+            .description("Emails not queued because their idempotency key was already used")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queues one email.
+     *
+     * @param idempotencyKey caller key (e.g. "welcome:" + userId) so repeating the call queues
+     *                       nothing; null generates a random one
+     * @return true if the email is queued, now or by an earlier call with the same key
+     */
+    @Transactional
+    public boolean enqueue(String to, String subject, String html, String idempotencyKey) {
+        String key = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int inserted = jdbcTemplate.update(INSERT_SQL,
+            to,
+            subject.length() > MAX_SUBJECT_LENGTH ? subject.substring(0, MAX_SUBJECT_LENGTH) : subject,
+            html,
+            to,
+            now,
+            key,
+            now);
+        if (inserted == 0) {
+            duplicates.increment();
+            return true;
+        }
+        enqueued.increment();
+
+        // Sin esperar al siguiente sondeo: el worker lo toma en cuanto la fila es visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    worker.wake();
+                }
+            });
+        } else {
+            worker.wake();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,254 @@
+package com.labMetricas.LabMetricas.sentEmail.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the sent_emails outbox with a pool of email.outbox.workers threads.
+ *
+ * Rows are claimed with UPDATE ... WHERE id IN (SELECT ... FOR UPDATE SKIP LOCKED), so several
+ * instances can poll the same table without sending a row twice. A claimed row is SENDING with
+ * next_attempt_at set to the end of its lease; if the instance dies mid-send, the row is claimed
+ * again after email.outbox.lease-timeout-ms. Failures are retried with exponential backoff and
+ * jitter up to email.outbox.max-attempts, then left FAILED with the last error.
+ *
+ * Meters: email.outbox.sent, email.outbox.retried, email.outbox.failed, email.outbox.in.flight,
+ * email.outbox.send.duration (provider call) and email.outbox.delivery.delay (queued to sent).
+ */
+@Service
+public class EmailOutboxWorker {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String CLAIM_SQL =
+        "UPDATE sent_emails SET status = 'SENDING', attempts = attempts + 1, next_attempt_at = ? " +
+        "WHERE id IN (SELECT id FROM sent_emails WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= ? " +
+        "             ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+        "RETURNING id, recipient, subject, body, idempotency_key, attempts, created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailTransport transport;
+    private final TaskExecutor executor;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration leaseTimeout;
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private volatile boolean pollRequested;
+    private volatile boolean running = true;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer sendDuration;
+    private final Timer deliveryDelay;
+
+    public EmailOutboxWorker(JdbcTemplate jdbcTemplate,
+                             EmailTransport transport,
+                             @Qualifier("emailOutboxExecutor") TaskExecutor executor,
+                             MeterRegistry meterRegistry,
+                             @Value("${email.outbox.workers:4}") int workers,
+                             @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${email.outbox.lease-timeout-ms:120000}") long leaseTimeoutMs,
+                             @Value("${email.outbox.retry.initial-delay-ms:30000}") long initialDelayMs,
+                             @Value("${email.outbox.retry.max-delay-ms:3600000}") long maxDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transport = transport;
+        this.executor = executor;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.leaseTimeout = Duration.ofMillis(leaseTimeoutMs);
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+
+        this.sent = Counter.builder("email.outbox.sent").register(meterRegistry);
+        this.retried = Counter.builder("email.outbox.retried")
+            .description("Failed attempts scheduled for a retry")
+            .register(meterRegistry);
+        this.failed = Counter.builder("email.outbox.failed")
+            .description("Emails given up on after the last attempt")
+            .register(meterRegistry);
+        this.sendDuration = Timer.builder("email.outbox.send.duration")
+            .description("Time of one call to the mail provider")
+            .register(meterRegistry);
+        this.deliveryDelay = Timer.builder("email.outbox.delivery.delay")
+            .description("Time from queueing an email to sending it")
+            .register(meterRegistry);
+        Gauge.builder("email.outbox.in.flight", inFlight, AtomicInteger::get)
+            .description("Emails being sent right now")
+            .register(meterRegistry);
+    }
+
+    // Red de seguridad: reintentos vencidos y filas de otra instancia que se cayó
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void scheduledPoll() {
+        poll();
+    }
+
+    // Called after a commit that queued an email
+    public void wake() {
+        try {
+            executor.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            // Apagándose: la fila se envía en el siguiente arranque
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+    }
+
+    // One poller at a time; a request that arrives meanwhile makes it run once more
+    private void poll() {
+        pollRequested = true;
+        while (pollRequested && running && polling.compareAndSet(false, true)) {
+            pollRequested = false;
+            try {
+                claimAndDispatch();
+            } catch (Exception e) {
+                logger.error("Email outbox poll failed", e);
+            } finally {
+                polling.set(false);
+            }
+        }
+    }
+
+    private void claimAndDispatch() {
+        int free = workers - inFlight.get();
+        while (free > 0 && running) {
+            List<ClaimedEmail> claimed = claim(free);
+            for (ClaimedEmail email : claimed) {
+                inFlight.incrementAndGet();
+                try {
+                    executor.execute(() -> deliver(email));
+                } catch (RejectedExecutionException e) {
+                    // Queda en SENDING y se reclama al vencer el plazo
+                    inFlight.decrementAndGet();
+                    return;
+                }
+            }
+            if (claimed.size() < free) {
+                return;
+            }
+            free = workers - inFlight.get();
+        }
+    }
+
+    private List<ClaimedEmail> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.query(CLAIM_SQL,
+            (rs, rowNum) -> new ClaimedEmail(
+                rs.getInt("id"),
+                rs.getString("recipient"),
+                rs.getString("subject"),
+                rs.getString("body"),
+                rs.getString("idempotency_key"),
+                rs.getInt("attempts"),
+                rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toLocalDateTime() : now),
+            Timestamp.valueOf(now.plus(leaseTimeout)),
+            Timestamp.valueOf(now),
+            limit);
+    }
+
+    private void deliver(ClaimedEmail email) {
+        try {
+            long start = System.nanoTime();
+            String messageId;
+            try {
+                messageId = transport.send(email.recipient(), email.subject(), email.body(), email.idempotencyKey());
+            } finally {
+                sendDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            markSent(email, messageId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markFailed(email, e);
+        } catch (Exception e) {
+            markFailed(email, e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        // Con cola acumulada, el hilo libre toma el siguiente lote
+        poll();
+    }
+
+    // The body is cleared once sent; subject, recipient and provider id stay as the record
+    private void markSent(ClaimedEmail email, String messageId) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(
+            "UPDATE sent_emails SET status = 'SENT', sent_at = ?, provider_message_id = ?, body = '', " +
+            "last_error = NULL, next_attempt_at = NULL WHERE id = ? AND status = 'SENDING'",
+            Timestamp.valueOf(now), messageId, email.id());
+        sent.increment();
+        deliveryDelay.record(Duration.between(email.createdAt(), now));
+        logger.info("Email {} sent to {} with provider id {}", email.id(), email.recipient(), messageId);
+    }
+
+    private void markFailed(ClaimedEmail email, Exception error) {
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        try {
+            if (email.attempts() >= maxAttempts) {
+                jdbcTemplate.update(
+                    "UPDATE sent_emails SET status = 'FAILED', next_attempt_at = NULL, last_error = ? " +
+                    "WHERE id = ? AND status = 'SENDING'",
+                    message, email.id());
+                failed.increment();
+                logger.error("Email {} to {} failed after {} attempts: {}", email.id(), email.recipient(), email.attempts(), message);
+            } else {
+                LocalDateTime next = LocalDateTime.now().plus(Duration.ofMillis(backoffMs(email.attempts())));
+                jdbcTemplate.update(
+                    "UPDATE sent_emails SET status = 'PENDING', next_attempt_at = ?, last_error = ? " +
+                    "WHERE id = ? AND status = 'SENDING'",
+                    Timestamp.valueOf(next), message, email.id());
+                retried.increment();
+                logger.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                    email.id(), email.recipient(), email.attempts(), next, message);
+            }
+        } catch (Exception e) {
+            // Sin actualizar, la fila se reclama al vencer el plazo
+            logger.error("Could not record the failure of email {}", email.id(), e);
+        }
+    }
+
+    // initial-delay * 2^(attempt-1), capped at max-delay, with up to half of it as random jitter
+    private long backoffMs(int attempt) {
+        long delay = initialDelayMs << Math.min(attempt - 1, 30);
+        if (delay <= 0 || delay > maxDelayMs) {
+            delay = maxDelayMs;
+        }
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private record ClaimedEmail(int id, String recipient, String subject, String body, String idempotencyKey,
+                                int attempts, LocalDateTime createdAt) {
+    }
+}
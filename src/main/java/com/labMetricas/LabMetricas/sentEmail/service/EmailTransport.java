@@ -0,0 +1,15 @@
+package com.labMetricas.LabMetricas.sentEmail.service;
+
+import java.io.IOException;
+
+/**
+ * Hands one email to the mail provider. Called by EmailOutboxWorker outside any transaction;
+ * an exception means the attempt failed and the outbox retries it later with the same key.
+ */
+public interface EmailTransport {
+
+    /**
+     * @return the provider's message id
+     */
+    String send(String to, String subject, String html, String idempotencyKey) throws IOException, InterruptedException;
+}
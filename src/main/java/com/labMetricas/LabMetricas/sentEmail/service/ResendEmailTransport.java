@@ -0,0 +1,71 @@
+package com.labMetricas.LabMetricas.sentEmail.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Posts to the Resend REST API (POST {resend.api.url}/emails). The Resend SDK cannot send an
+ * Idempotency-Key nor point at another base URL, so the call is made directly; set
+ * resend.api.url to the local fake endpoint (/api/public/fake-resend) to test without Resend.
+ */
+@Service
+public class ResendEmailTransport implements EmailTransport {
+    private static final int MAX_ERROR_LENGTH = 300;
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI emailsUri;
+    private final String apiKey;
+    private final String defaultSender;
+    private final Duration timeout;
+
+    public ResendEmailTransport(ObjectMapper objectMapper,
+                                @Value("${resend.api.url:https://api.resend.com}") String apiUrl,
+                                @Value("${resend.api.key}") String apiKey,
+                                @Value("${resend.default.sender}") String defaultSender,
+                                @Value("${email.transport.timeout-ms:10000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.emailsUri = URI.create(apiUrl.replaceAll("/+$", "") + "/emails");
+        this.apiKey = apiKey;
+        this.defaultSender = defaultSender;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    @Override
+    public String send(String to, String subject, String html, String idempotencyKey) throws IOException, InterruptedException {
+        String payload = objectMapper.writeValueAsString(Map.of(
+            "from", defaultSender,
+            "to", List.of(to),
+            "subject", subject,
+            "html", html
+        ));
+        HttpRequest request = HttpRequest.newBuilder(emailsUri)
+            .timeout(timeout)
+            .header("Authorization", "Bearer " + apiKey)
+            .header("Content-Type", "application/json")
+            .header("Idempotency-Key", idempotencyKey)
+            .POST(HttpRequest.BodyPublishers.ofString(payload))
+            .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            String body = response.body() == null ? "" : response.body();
+            throw new IOException("Resend responded " + response.statusCode() + ": "
+                + (body.length() > MAX_ERROR_LENGTH ? body.substring(0, MAX_ERROR_LENGTH) : body));
+        }
+        return objectMapper.readTree(response.body()).path("id").asText(null);
+    }
+}
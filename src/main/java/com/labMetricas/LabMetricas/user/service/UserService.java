@@ -8,6 +8,8 @@ import com.labMetricas.LabMetricas.user.model.dto.ChangePasswordDto;
 import com.labMetricas.LabMetricas.user.model.dto.UserDto;
 import com.labMetricas.LabMetricas.util.ResponseObject;
 import com.labMetricas.LabMetricas.config.ProductionEmailService;
+import com.labMetricas.LabMetricas.revokedToken.service.TokenRevocationService;
+import com.labMetricas.LabMetricas.security.UserPrincipalCache;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +45,12 @@ public class UserService {
     @Autowired
     private ProductionEmailService productionEmailService;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Value("${frontend.url}")
     private String frontendUrl;
 
@@ -167,6 +175,8 @@ public class UserService {
 
             // Store old email for notification
             String oldEmail = existingUser.getEmail();
+            Long oldRoleId = existingUser.getRole() != null ? existingUser.getRole().getId() : null;
+            Boolean oldStatus = existingUser.getStatus();
 
             // Update user details
             existingUser.setName(userDto.getName());
@@ -194,6 +204,17 @@ public class UserService {
             // Save updated user
             User updatedUser = userRepository.save(existingUser);
 
+            // Cached principals carry role and status; drop both the old and the new email
+            userPrincipalCache.invalidate(oldEmail);
+            userPrincipalCache.invalidate(updatedUser.getEmail());
+
+            // Tokens carry email and roles as claims: issued tokens must stop working when they change
+            if (!oldEmail.equals(updatedUser.getEmail())
+                || !Objects.equals(oldRoleId, updatedUser.getRole().getId())
+                || !Objects.equals(oldStatus, updatedUser.getStatus())) {
+                tokenRevocationService.revokeAllForUser(updatedUser.getId(), "USER_UPDATED");
+            }
+
             // Send notification about user update
             sendUserUpdateNotification(updatedUser, oldEmail);
 
@@ -274,6 +295,8 @@ public class UserService {
             user.setStatus(false);
             user.setDeletedAt(LocalDateTime.now());
             userRepository.save(user);
+            userPrincipalCache.invalidate(user.getEmail());
+            tokenRevocationService.revokeAllForUser(user.getId(), "USER_DELETED");
 
             return ResponseEntity.ok(
                 new ResponseObject("User deleted successfully", null, TypeResponse.SUCCESS)
@@ -307,6 +330,8 @@ public class UserService {
             currentUser.setPassword(passwordEncoder.encode(changePasswordDto.getNewPassword()));
             currentUser.setUpdatedAt(LocalDateTime.now());
             userRepository.save(currentUser);
+            userPrincipalCache.invalidate(currentUser.getEmail());
+            tokenRevocationService.revokeAllForUser(currentUser.getId(), "PASSWORD_CHANGED");
 
             // Send password change confirmation email
             sendPasswordChangeConfirmation(currentUser);
@@ -332,6 +357,8 @@ public class UserService {
             user.setStatus(!user.getStatus());
             user.setUpdatedAt(LocalDateTime.now());
             User updatedUser = userRepository.save(user);
+            userPrincipalCache.invalidate(updatedUser.getEmail());
+            tokenRevocationService.revokeAllForUser(updatedUser.getId(), "STATUS_CHANGED");
 
             // Send status change notification
             sendUserStatusChangeNotification(updatedUser, oldStatus);
@@ -441,6 +468,8 @@ public class UserService {
             user.setStatus(!user.getStatus());
             user.setDeletedAt(LocalDateTime.now());
             userRepository.saveAndFlush(user);
+            userPrincipalCache.invalidate(user.getEmail());
+            tokenRevocationService.revokeAllForUser(user.getId(), "USER_DELETED");
 
             return ResponseEntity.ok(
                 new ResponseObject("User deleted successfully", null, TypeResponse.SUCCESS)
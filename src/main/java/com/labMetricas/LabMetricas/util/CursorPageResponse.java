@@ -0,0 +1,68 @@
+package com.labMetricas.LabMetricas.util;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor (keyset) counterpart of {@link PageResponse}. It carries no total count,
+ * so building a page costs the same no matter how large the table grows.
+ */
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int pageSize;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public CursorPageResponse(List<T> content, int pageSize, String nextCursor) {
+        this.content = content;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    /**
+     * Build a page from a query that fetched {@code pageSize + 1} rows: the extra row
+     * only signals that another page exists and is not returned.
+     */
+    public static <T> CursorPageResponse<T> fromRows(List<T> rows, int pageSize, Function<T, KeysetCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new CursorPageResponse<>(rows, pageSize, null);
+        }
+        List<T> content = rows.subList(0, pageSize);
+        String nextCursor = cursorOf.apply(content.get(content.size() - 1)).encode();
+        return new CursorPageResponse<>(content, pageSize, nextCursor);
+    }
+
+    // Getters and setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,91 @@
+package com.labMetricas.LabMetricas.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free token buckets in a fixed array of stripes. A key is hashed (with a per-instance
+ * random seed) to one stripe, so memory is bounded no matter how many distinct keys arrive; keys
+ * that collide share a bucket, which only ever makes the limit stricter for them.
+ *
+ * Each stripe is a single long: the last refill time in the high 40 bits (milliseconds) and the
+ * available tokens in thousandths in the low 24 bits, updated with compare-and-set.
+ */
+public class TokenBucketRateLimiter {
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI_TOKENS_PER_TOKEN = 1000;
+
+    private final AtomicLongArray stripes;
+    private final int stripeMask;
+    private final long capacityMilliTokens;
+    private final double refillMilliTokensPerMs;
+    private final long clockOrigin;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * @param capacity      burst size, in requests
+     * @param periodMillis  time to refill the whole bucket
+     * @param stripeCount   number of buckets, rounded up to a power of two
+     */
+    public TokenBucketRateLimiter(int capacity, long periodMillis, int stripeCount) {
+        if (capacity <= 0 || capacity * MILLI_TOKENS_PER_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + TOKEN_MASK / MILLI_TOKENS_PER_TOKEN);
+        }
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("periodMillis must be positive");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new AtomicLongArray(size);
+        this.stripeMask = size - 1;
+        this.capacityMilliTokens = capacity * MILLI_TOKENS_PER_TOKEN;
+        this.refillMilliTokensPerMs = (double) capacityMilliTokens / periodMillis;
+        // Un bucket sin usar (0) tiene timestamp 0: el reloj arranca un periodo completo después para que empiece lleno
+        this.clockOrigin = System.nanoTime() / 1_000_000 - periodMillis - 1;
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 if the request is allowed, otherwise the milliseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        int index = (int) (hash64(key) & stripeMask);
+        long now = System.nanoTime() / 1_000_000 - clockOrigin;
+        while (true) {
+            long state = stripes.get(index);
+            long lastRefill = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+
+            long elapsed = Math.max(0, now - lastRefill);
+            long available = (long) Math.min(capacityMilliTokens, tokens + elapsed * refillMilliTokensPerMs);
+            if (available < MILLI_TOKENS_PER_TOKEN) {
+                // Rechazo sin escribir: el estado no cambia y no hay contención
+                return (long) Math.ceil((MILLI_TOKENS_PER_TOKEN - available) / refillMilliTokensPerMs);
+            }
+            long next = (now << TOKEN_BITS) | (available - MILLI_TOKENS_PER_TOKEN);
+            if (stripes.compareAndSet(index, state, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Seeded FNV-1a finished with splitmix64, so stripe collisions cannot be precomputed
+    private long hash64(String value) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= (h >>> 30);
+        h *= 0xbf58476d1ce4e5b9L;
+        h ^= (h >>> 27);
+        h *= 0x94d049bb133111ebL;
+        h ^= (h >>> 31);
+        return h;
+    }
+}
@@ -0,0 +1,216 @@
+package com.labMetricas.LabMetricas.maintenance.repository;
+
+import com.labMetricas.LabMetricas.EquipmentCategory.model.EquipmentCategory;
+import com.labMetricas.LabMetricas.MaintenanceProvider.model.MaintenanceProvider;
+import com.labMetricas.LabMetricas.MaintenanceType.model.MaintenanceType;
+import com.labMetricas.LabMetricas.equipment.model.Equipment;
+import com.labMetricas.LabMetricas.maintenance.model.FrequencyType;
+import com.labMetricas.LabMetricas.maintenance.model.Maintenance;
+import com.labMetricas.LabMetricas.maintenance.model.ScheduledMaintenance;
+import com.labMetricas.LabMetricas.role.model.Role;
+import com.labMetricas.LabMetricas.user.model.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every detail finder must fill its DTOs in one statement, whatever the number of rows
+ * (the N+1 loads of MaintenanceDetailDto(Maintenance) issued one select per association and row).
+ *
+ * Runs on an embedded PostgreSQL; set TEST_DATABASE_URL (plus TEST_DATABASE_USERNAME and
+ * TEST_DATABASE_PASSWORD) to use an existing, disposable database instead, e.g. when running as root.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MaintenanceRepositoryQueryCountTest {
+
+    private static EmbeddedPostgres embeddedPostgres;
+
+    @Autowired
+    private MaintenanceRepository maintenanceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User requester;
+    private User responsible;
+    private final List<UUID> plainIds = new ArrayList<>();
+    private final List<UUID> scheduledIds = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        String url = System.getenv("TEST_DATABASE_URL");
+        if (url == null) {
+            embeddedPostgres = EmbeddedPostgres.start();
+            registry.add("spring.datasource.url", () -> embeddedPostgres.getJdbcUrl("postgres", "postgres"));
+            registry.add("spring.datasource.username", () -> "postgres");
+            return;
+        }
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("TEST_DATABASE_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("TEST_DATABASE_PASSWORD", ""));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void detailFindersIssueOneStatementRegardlessOfResultSize(int rows) {
+        seed(rows);
+        PageRequest page = PageRequest.of(0, 100);
+
+        assertSingleStatement(() -> maintenanceRepository.findDetailById(plainIds.get(0)), 1);
+        assertSingleStatement(() -> maintenanceRepository.findDetailsByIdIn(plainIds), rows);
+        assertSingleStatement(() -> maintenanceRepository.findDetailsByReviewStatus(Maintenance.ReviewStatus.PENDING), rows);
+        assertSingleStatement(() -> maintenanceRepository.findDetailsByResponsibleId(responsible.getId()), 3 * rows);
+        assertSingleStatement(() -> maintenanceRepository.findDetailsByRequestedById(requester.getId()), 3 * rows);
+        assertSingleStatement(() -> maintenanceRepository.findDetailsByRequestedByAndNotProgrammed(requester), rows);
+        assertSingleStatement(() -> maintenanceRepository.findDetailsByResponsibleAndNotProgrammed(responsible), rows);
+        assertSingleStatement(() -> maintenanceRepository.findDetailPage(null, null, null, null, null, null, page), 3 * rows);
+        assertSingleStatement(() -> maintenanceRepository.findMyDetailPage(requester.getId(), null, null, page), 3 * rows);
+        assertSingleStatement(() -> maintenanceRepository.findScheduledDetailById(scheduledIds.get(0)), 1);
+        assertSingleStatement(() -> maintenanceRepository.findAllScheduledDetails(), 2 * rows);
+        assertSingleStatement(() -> maintenanceRepository.findScheduledDetailsByRequestedBy(requester), 2 * rows);
+        assertSingleStatement(() -> maintenanceRepository.findScheduledDetailsByResponsible(responsible), 2 * rows);
+    }
+
+    private void assertSingleStatement(Supplier<?> finder, int expectedRows) {
+        // Nada en caché: cada asociación que no venga en la proyección costaría otra consulta
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        Object result = finder.get();
+
+        assertThat(size(result)).isEqualTo(expectedRows);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static int size(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return ((Collection<?>) result).size();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Per row: one pending request, one scheduled template and one occurrence linked to its schedule
+    private void seed(int rows) {
+        Role role = new Role();
+        role.setName("USER");
+        entityManager.persist(role);
+        requester = user("requester", role);
+        responsible = user("responsible", role);
+        User reviewer = user("reviewer", role);
+
+        MaintenanceType type = new MaintenanceType();
+        type.setName("Preventivo");
+        type.setStatus(true);
+        entityManager.persist(type);
+        Equipment equipment = equipment(responsible);
+
+        for (int i = 0; i < rows; i++) {
+            Maintenance request = maintenance("NP-" + i, equipment, type, reviewer);
+            request.setReviewStatus(Maintenance.ReviewStatus.PENDING);
+            plainIds.add(request.getId());
+
+            Maintenance template = maintenance("P-" + i, equipment, type, reviewer);
+            ScheduledMaintenance schedule = new ScheduledMaintenance();
+            schedule.setMaintenance(template);
+            schedule.setFrequencyType(FrequencyType.MONTHLY);
+            schedule.setFrequencyValue((short) 1);
+            schedule.setNextMaintenance(LocalDateTime.now().plusMonths(1));
+            entityManager.persist(schedule);
+            scheduledIds.add(template.getId());
+
+            Maintenance occurrence = maintenance("P-" + i + "-1", equipment, type, reviewer);
+            occurrence.setSchedule(schedule);
+        }
+        entityManager.flush();
+    }
+
+    private User user(String name, Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@labmetricas.test");
+        user.setPassword("secret");
+        user.setPosition("Técnico");
+        user.setStatus(true);
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Equipment equipment(User assignedTo) {
+        EquipmentCategory category = new EquipmentCategory();
+        category.setName("Balanzas");
+        entityManager.persist(category);
+
+        MaintenanceProvider provider = new MaintenanceProvider();
+        provider.setName("Proveedor");
+        provider.setEmail("provider@labmetricas.test");
+        provider.setNif("B12345678");
+        entityManager.persist(provider);
+
+        Equipment equipment = new Equipment();
+        equipment.setStatus(true);
+        equipment.setName("Balanza analítica");
+        equipment.setCode("BAL-01");
+        equipment.setSerialNumber("SN-0001");
+        equipment.setLocation("Laboratorio 1");
+        equipment.setBrand("Ohaus");
+        equipment.setModel("PX224");
+        equipment.setCreatedAt(LocalDateTime.now());
+        equipment.setAssignedTo(assignedTo);
+        equipment.setEquipmentCategory(category);
+        equipment.setMaintenanceProvider(provider);
+        entityManager.persist(equipment);
+        return equipment;
+    }
+
+    private Maintenance maintenance(String code, Equipment equipment, MaintenanceType type, User reviewer) {
+        Maintenance maintenance = new Maintenance();
+        maintenance.setCode(code);
+        maintenance.setDescription("Calibración");
+        maintenance.setCreatedAt(LocalDateTime.now());
+        maintenance.setEquipment(equipment);
+        maintenance.setMaintenanceType(type);
+        maintenance.setResponsible(responsible);
+        maintenance.setRequestedBy(requester);
+        maintenance.setReviewedBy(reviewer);
+        entityManager.persist(maintenance);
+        return maintenance;
+    }
+}
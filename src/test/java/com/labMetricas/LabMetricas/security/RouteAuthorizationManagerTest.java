@@ -0,0 +1,155 @@
+package com.labMetricas.LabMetricas.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The trie must decide exactly like the requestMatchers chain it replaced. Each row is checked
+ * against the expected outcome per role and against that chain, rebuilt with Spring Security's
+ * own matchers. None of the rules is method-specific, so every method must get the same answer.
+ */
+class RouteAuthorizationManagerTest {
+
+    private static final String[] ALL_ROLES = {"ADMIN", "SUPERVISOR", "OPERADOR"};
+    private static final List<String> METHODS = List.of("GET", "POST", "PUT", "PATCH", "DELETE");
+
+    private final RouteAuthorizationManager routes = new SecurityConfig().routeAuthorizationManager();
+    private final AuthorizationManager<HttpServletRequest> previousRules = previousRules();
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', textBlock = """
+        # path                                | anonymous | OPERADOR | SUPERVISOR | ADMIN
+        /api/auth/login                       | true      | true     | true       | true
+        /api/auth                             | true      | true     | true       | true
+        /api/auth/forgot-password             | true      | true     | true       | true
+        /api/authx                            | false     | true     | true       | true
+        /api/public/documents/42              | true      | true     | true       | true
+        /api/health                           | true      | true     | true       | true
+        /api/health/                          | false     | true     | true       | true
+        /api/health/details                   | false     | true     | true       | true
+        /swagger-ui/index.html                | true      | true     | true       | true
+        /v3/api-docs                          | true      | true     | true       | true
+        /api/users                            | false     | true     | true       | true
+        /api/users/me/profile                 | false     | true     | true       | true
+        /api/customers/42                     | false     | true     | true       | true
+        /api/admin/users                      | false     | false    | false      | true
+        /api/admin/users/42/role              | false     | false    | false      | true
+        /api/admin/settings                   | false     | true     | true       | true
+        /api/supervisor/reports               | false     | false    | true       | true
+        /api/operador/tasks                   | false     | true     | true       | true
+        /api/maintenance/init-data            | false     | true     | true       | true
+        /api/maintenance/init-data/extra      | false     | true     | true       | true
+        /api/maintenance/create               | false     | true     | true       | true
+        /api/maintenance/list                 | false     | false    | true       | true
+        /api/maintenance/list/page            | false     | true     | true       | true
+        /api/maintenance/update-status        | false     | false    | true       | true
+        /api/maintenance/update-status/123    | false     | false    | true       | true
+        /api/maintenance/bulk-review          | false     | true     | true       | true
+        /api/equipment                        | false     | true     | true       | true
+        /                                     | false     | true     | true       | true
+        """)
+    void decidesLikeThePreviousMatchers(String path, boolean anonymous, boolean operador,
+                                        boolean supervisor, boolean admin) {
+        assertDecisions(path, anonymous(), anonymous);
+        assertDecisions(path, role("OPERADOR"), operador);
+        assertDecisions(path, role("SUPERVISOR"), supervisor);
+        assertDecisions(path, role("ADMIN"), admin);
+    }
+
+    @Test
+    void firstDeclaredRuleWinsOverALaterMoreSpecificOne() {
+        RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+            .hasAnyAuthority("/api/reports/**", "SUPERVISOR")
+            .hasAnyAuthority("/api/reports/daily", "OPERADOR")
+            .build();
+
+        assertThat(decide(manager, "GET", "/api/reports/daily", role("OPERADOR"))).isFalse();
+        assertThat(decide(manager, "GET", "/api/reports/daily", role("SUPERVISOR"))).isTrue();
+    }
+
+    @Test
+    void rejectsPatternsTheTrieCannotMatch() {
+        RouteAuthorizationManager.Builder builder = RouteAuthorizationManager.builder();
+
+        assertThatThrownBy(() -> builder.permitAll("/api/*/public")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.permitAll("/api/users/{id}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.permitAll("api/public/**")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertDecisions(String path, Authentication authentication, boolean expected) {
+        for (String method : METHODS) {
+            MockHttpServletRequest request = request(method, path);
+            boolean previous = previousRules.authorize(() -> authentication, request).isGranted();
+
+            assertThat(previous).as("previous rules: %s %s as %s", method, path, authentication.getAuthorities())
+                .isEqualTo(expected);
+            assertThat(decide(routes, method, path, authentication))
+                .as("%s %s as %s", method, path, authentication.getAuthorities())
+                .isEqualTo(expected);
+        }
+    }
+
+    private static boolean decide(RouteAuthorizationManager manager, String method, String path,
+                                  Authentication authentication) {
+        RequestAuthorizationContext context = new RequestAuthorizationContext(request(method, path));
+        return manager.authorize(() -> authentication, context).isGranted();
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private static Authentication anonymous() {
+        return new AnonymousAuthenticationToken("key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+    }
+
+    private static Authentication role(String role) {
+        return new TestingAuthenticationToken("user@labmetricas.test", null, role);
+    }
+
+    // Cadena de requestMatchers tal como estaba antes del trie
+    private static AuthorizationManager<HttpServletRequest> previousRules() {
+        AuthorizationManager<RequestAuthorizationContext> permitAll = (authentication, context) -> new AuthorizationDecision(true);
+        return RequestMatcherDelegatingAuthorizationManager.builder()
+            .add(new AntPathRequestMatcher("/api/auth/**"), permitAll)
+            .add(new AntPathRequestMatcher("/api/public/**"), permitAll)
+            .add(new AntPathRequestMatcher("/api/health"), permitAll)
+            .add(new AntPathRequestMatcher("/swagger-ui/**"), permitAll)
+            .add(new AntPathRequestMatcher("/v3/api-docs/**"), permitAll)
+            .add(new AntPathRequestMatcher("/api/auth/forgot-password"), permitAll)
+            .add(new AntPathRequestMatcher("/api/auth/reset-password"), permitAll)
+            .add(new AntPathRequestMatcher("/api/users/**"), AuthorityAuthorizationManager.hasAnyAuthority(ALL_ROLES))
+            .add(new AntPathRequestMatcher("/api/customers/**"), AuthorityAuthorizationManager.hasAnyAuthority(ALL_ROLES))
+            .add(new AntPathRequestMatcher("/api/admin/users/**"), AuthorityAuthorizationManager.hasAuthority("ADMIN"))
+            .add(new AntPathRequestMatcher("/api/supervisor/**"), AuthorityAuthorizationManager.hasAnyAuthority("ADMIN", "SUPERVISOR"))
+            .add(new AntPathRequestMatcher("/api/operador/**"), AuthorityAuthorizationManager.hasAnyAuthority(ALL_ROLES))
+            .add(new AntPathRequestMatcher("/api/maintenance/init-data"), AuthorityAuthorizationManager.hasAnyAuthority(ALL_ROLES))
+            .add(new AntPathRequestMatcher("/api/maintenance/create"), AuthorityAuthorizationManager.hasAnyAuthority(ALL_ROLES))
+            .add(new AntPathRequestMatcher("/api/maintenance/update-status/**"), AuthorityAuthorizationManager.hasAnyAuthority("ADMIN", "SUPERVISOR"))
+            .add(new AntPathRequestMatcher("/api/maintenance/list"), AuthorityAuthorizationManager.hasAnyAuthority("ADMIN", "SUPERVISOR"))
+            .add(AnyRequestMatcher.INSTANCE, AuthenticatedAuthorizationManager.authenticated())
+            .build();
+    }
+}